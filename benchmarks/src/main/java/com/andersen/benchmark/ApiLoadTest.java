@@ -0,0 +1,162 @@
+package com.andersen.benchmark;
+
+import com.andersen.controller.api.ApiServer;
+import com.andersen.entity.users.Customer;
+import com.andersen.repository.booking.IndexedBookingRepository;
+import com.andersen.repository.user.UserRepositoryImpl;
+import com.andersen.repository.workspace.WorkspaceLog;
+import com.andersen.repository.workspace.WorkspaceRepositoryImpl;
+import com.andersen.service.auth.AuthServiceImp;
+import com.andersen.service.booking.BookingServiceImpl;
+import com.andersen.service.workspace.WorkspaceServiceImpl;
+import com.andersen.util.VirtualThreads;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load test for {@link ApiServer}. Starts the API in-process on an ephemeral port and
+ * drives it with concurrent clients that log in once and then reserve, list and cancel in a loop.
+ * Reports requests per second and latency percentiles.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar com.andersen.benchmark.ApiLoadTest [clients] [seconds] [workspaces]}
+ */
+public class ApiLoadTest {
+    private static final Pattern TOKEN = Pattern.compile("\"token\":\"([^\"]+)\"");
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final int INITIAL_SAMPLES_PER_CLIENT = 4096;
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int workspaces = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+
+        Path directory = BenchmarkData.createTempDirectory();
+        WorkspaceRepositoryImpl workspaceRepository = new WorkspaceRepositoryImpl(
+                BenchmarkData.writeCatalog(directory, workspaces).toString(),
+                directory.resolve("workspaces.log").toString(), WorkspaceLog.FsyncPolicy.NEVER, Long.MAX_VALUE);
+        UserRepositoryImpl users = new UserRepositoryImpl();
+        for (int i = 0; i < clients; i++) {
+            users.addUser(new Customer("client" + i, "secret"));
+        }
+        ApiServer server = new ApiServer(new WorkspaceServiceImpl(workspaceRepository),
+                new BookingServiceImpl(new IndexedBookingRepository()), new AuthServiceImp(users));
+        server.start(0);
+        String baseUri = "http://localhost:" + server.getPort() + "/api/";
+        System.out.println("Driving " + baseUri + " with " + clients + " clients for " + seconds + "s"
+                + (VirtualThreads.isAvailable() ? " on virtual threads" : " on platform threads"));
+
+        HttpClient http = HttpClient.newBuilder()
+                .executor(VirtualThreads.newPerTaskExecutor("load-client-io"))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        long[][] samples = new long[clients][];
+        int[] sampleCounts = new int[clients];
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        ExecutorService executor = VirtualThreads.newPerTaskExecutor("load-client");
+        long started = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            executor.submit(() -> {
+                long[] latencies = new long[INITIAL_SAMPLES_PER_CLIENT];
+                int count = 0;
+                try {
+                    String token = extract(TOKEN, send(http, HttpRequest.newBuilder(URI.create(baseUri + "login"))
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"username\":\"client" + client + "\",\"password\":\"secret\"}"))
+                            .build()).body());
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        if (count > latencies.length - 3) {
+                            latencies = Arrays.copyOf(latencies, latencies.length * 2);
+                        }
+                        LocalTime start = LocalTime.of(random.nextInt(23), random.nextInt(60));
+                        // A freshly loaded catalog numbers its workspaces 1..n
+                        String reservation = "{\"workspaceId\":" + (1 + random.nextInt(workspaces))
+                                + ",\"date\":\"" + BenchmarkData.DAY
+                                + "\",\"startTime\":\"" + start + "\",\"endTime\":\"" + start.plusMinutes(30) + "\"}";
+
+                        long t0 = System.nanoTime();
+                        HttpResponse<String> reserved = send(http, authorized(baseUri + "reservations", token)
+                                .POST(HttpRequest.BodyPublishers.ofString(reservation)).build());
+                        long t1 = System.nanoTime();
+                        send(http, authorized(baseUri + "reservations", token).GET().build());
+                        long t2 = System.nanoTime();
+                        latencies[count++] = t1 - t0;
+                        latencies[count++] = t2 - t1;
+                        if (reserved.statusCode() == 200) {
+                            send(http, authorized(baseUri + "reservations/" + extract(ID, reserved.body()), token)
+                                    .DELETE().build());
+                            latencies[count++] = System.nanoTime() - t2;
+                        } else if (reserved.statusCode() != 409) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                    System.out.println("Client " + client + " stopped: " + e);
+                }
+                samples[client] = latencies;
+                sampleCounts[client] = count;
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+        server.stop();
+        workspaceRepository.close();
+        BenchmarkData.deleteRecursively(directory);
+
+        int total = Arrays.stream(sampleCounts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < clients; c++) {
+            if (samples[c] != null) {
+                System.arraycopy(samples[c], 0, all, offset, sampleCounts[c]);
+                offset += sampleCounts[c];
+            }
+        }
+        Arrays.sort(all, 0, offset);
+        System.out.printf("requests: %d, errors: %d, throughput: %.0f req/s%n", offset, errors.get(), offset / elapsedSeconds);
+        System.out.printf("latency p50: %.2f ms, p99: %.2f ms, p99.9: %.2f ms, max: %.2f ms%n",
+                percentile(all, offset, 0.50), percentile(all, offset, 0.99),
+                percentile(all, offset, 0.999), percentile(all, offset, 1.0));
+    }
+
+    private static HttpRequest.Builder authorized(String uri, String token) {
+        return HttpRequest.newBuilder(URI.create(uri)).header("Authorization", "Bearer " + token);
+    }
+
+    private static HttpResponse<String> send(HttpClient http, HttpRequest request) throws Exception {
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String extract(Pattern pattern, String body) {
+        Matcher matcher = pattern.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Unexpected response: " + body);
+        }
+        return matcher.group(1);
+    }
+
+    private static double percentile(long[] sorted, int count, double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(count - 1, Math.ceil(quantile * count) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
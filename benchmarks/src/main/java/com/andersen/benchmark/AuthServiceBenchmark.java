@@ -0,0 +1,73 @@
+package com.andersen.benchmark;
+
+import com.andersen.entity.role.User;
+import com.andersen.entity.users.Customer;
+import com.andersen.repository.user.UserRepositoryImpl;
+import com.andersen.service.auth.AuthServiceImp;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Login throughput against a directory of {@code users} registered customers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthServiceBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    public int users;
+
+    private AuthServiceImp authService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserRepositoryImpl directory = new UserRepositoryImpl();
+        for (int i = 0; i < users; i++) {
+            directory.addUser(new Customer(userName(i), "secret" + i));
+        }
+        authService = new AuthServiceImp(directory);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public User loginCustomer() throws Exception {
+        return login();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public User loginCustomerConcurrent() throws Exception {
+        return login();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public User resolveSession() throws Exception {
+        return authService.getSessionUser(authService.createSession(login()));
+    }
+
+    private User login() throws Exception {
+        int i = ThreadLocalRandom.current().nextInt(users);
+        return authService.loginCustomer(userName(i), "secret" + i);
+    }
+
+    private static String userName(int index) {
+        return "customer" + index;
+    }
+}
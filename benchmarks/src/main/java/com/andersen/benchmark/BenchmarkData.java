@@ -0,0 +1,64 @@
+package com.andersen.benchmark;
+
+import com.andersen.entity.workspace.Workspace;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Shared fixtures for the benchmarks: synthetic catalogs and scratch directories.
+ */
+final class BenchmarkData {
+    // Every benchmark books this day, far enough ahead never to be in the past
+    static final LocalDate DAY = LocalDate.of(2030, 1, 7);
+
+    private BenchmarkData() {
+    }
+
+    static List<Workspace> workspaces(int count) {
+        List<Workspace> workspaces = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Workspace workspace = new Workspace(workspaceName(i), "Benchmark workspace " + i);
+            workspace.setId(i + 1);
+            workspaces.add(workspace);
+        }
+        return workspaces;
+    }
+
+    static String workspaceName(int index) {
+        return "Workspace " + index;
+    }
+
+    static Path writeCatalog(Path directory, int count) throws IOException {
+        Path file = directory.resolve("workspaces.txt");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < count; i++) {
+                writer.write(workspaceName(i) + ",Benchmark workspace " + i + " with desks, meeting rooms and coffee");
+                writer.newLine();
+            }
+        }
+        return file;
+    }
+
+    static Path createTempDirectory() throws IOException {
+        return Files.createTempDirectory("coworking-bench");
+    }
+
+    static void deleteRecursively(Path directory) {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
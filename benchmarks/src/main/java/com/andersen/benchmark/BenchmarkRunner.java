@@ -0,0 +1,37 @@
+package com.andersen.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler (allocation rate per operation) and writes the results
+ * as JSON, so two releases can be compared with any JMH result viewer.
+ * <p>
+ * Usage: {@code java -jar target/benchmarks.jar [include-regex] [results-directory]}
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = args.length > 0 ? args[0] : "com.andersen.benchmark.*";
+        Path resultsDirectory = Files.createDirectories(Path.of(args.length > 1 ? args[1] : "results"));
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path resultFile = resultsDirectory.resolve("benchmarks-" + timestamp + ".json");
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile.toString());
+        new Runner(options.build()).run();
+
+        System.out.println("Results written to " + resultFile.toAbsolutePath());
+    }
+}
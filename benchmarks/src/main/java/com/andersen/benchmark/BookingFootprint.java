@@ -0,0 +1,111 @@
+package com.andersen.benchmark;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.repository.booking.BookingRepository;
+import com.andersen.repository.booking.IndexedBookingRepository;
+import com.andersen.repository.booking.OffHeapBookingRepository;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Measures the memory each booking store needs per booking: fills a repository and the workspaces'
+ * conflict schedules the way a reservation does, forces garbage collection and reports the growth of
+ * the heap and of direct memory, then times a full scan in id order.
+ * <p>
+ * Usage: {@code java -Xmx8g -cp target/benchmarks.jar com.andersen.benchmark.BookingFootprint [bookings,...] [workspaces] [customers]}
+ */
+public class BookingFootprint {
+    private static final int DAYS = 365;
+    private static final int SLOTS_PER_DAY = 40;
+
+    public static void main(String[] args) throws InterruptedException {
+        String[] sizes = (args.length > 0 ? args[0] : "100000,1000000").split(",");
+        int workspaceCount = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int customerCount = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+
+        List<Customer> customers = new ArrayList<>(customerCount);
+        for (int i = 0; i < customerCount; i++) {
+            customers.add(new Customer("customer" + i, "secret"));
+        }
+
+        System.out.printf("%-10s %-12s %14s %14s %14s %10s %10s%n",
+                "store", "bookings", "heap bytes", "direct bytes", "bytes/booking", "fill ms", "scan ms");
+        for (String size : sizes) {
+            int bookings = Integer.parseInt(size.trim());
+            measure("indexed", IndexedBookingRepository::new, bookings, workspaceCount, customers);
+            measure("off-heap", OffHeapBookingRepository::new, bookings, workspaceCount, customers);
+        }
+    }
+
+    private static void measure(String name, Supplier<BookingRepository> store, int count, int workspaceCount,
+                                List<Customer> customers) throws InterruptedException {
+        List<Workspace> workspaces = BenchmarkData.workspaces(workspaceCount);
+        long heapBefore = usedHeap();
+        long directBefore = usedDirect();
+
+        long started = System.nanoTime();
+        BookingRepository repository = store.get();
+        List<Booking> batch = new ArrayList<>(1024);
+        for (int i = 0; i < count; i++) {
+            Booking booking = booking(i, workspaces, customers);
+            booking.getWorkspace().addBooking(booking);
+            batch.add(booking);
+            if (batch.size() == 1024) {
+                repository.addBookings(batch);
+                batch.clear();
+            }
+        }
+        repository.addBookings(batch);
+        batch = null;
+        long fillMillis = (System.nanoTime() - started) / 1_000_000;
+
+        long heap = usedHeap() - heapBefore;
+        long direct = usedDirect() - directBefore;
+
+        started = System.nanoTime();
+        long minutes = repository.streamBookings()
+                .mapToLong(booking -> booking.getEndTime().toSecondOfDay() - booking.getStartTime().toSecondOfDay())
+                .sum() / 60;
+        long scanMillis = (System.nanoTime() - started) / 1_000_000;
+
+        System.out.printf("%-10s %-12d %14d %14d %14.1f %10d %10d%n", name, count, heap, direct,
+                (double) (heap + direct) / count, fillMillis, scanMillis);
+        if (minutes <= 0) {
+            throw new IllegalStateException("Scan read no booked time");
+        }
+        Reference.reachabilityFence(repository);
+        Reference.reachabilityFence(workspaces);
+    }
+
+    private static Booking booking(int index, List<Workspace> workspaces, List<Customer> customers) {
+        int slot = (index / workspaces.size()) % SLOTS_PER_DAY;
+        int day = index / (workspaces.size() * SLOTS_PER_DAY) % DAYS;
+        LocalTime start = LocalTime.of(8, 0).plusMinutes(15L * slot);
+        return new Booking((long) index + 1, customers.get(index % customers.size()), workspaces.get(index % workspaces.size()),
+                BenchmarkData.DAY.plusDays(day), start, start.plusMinutes(15));
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long usedDirect() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) {
+                return pool.getMemoryUsed();
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,92 @@
+package com.andersen.benchmark;
+
+import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.repository.booking.DurableBookingRepository;
+import com.andersen.repository.booking.IndexedBookingRepository;
+import com.andersen.service.booking.BookingServiceImpl;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Recovery time of {@link DurableBookingRepository#load()} from a snapshot of {@code bookings}
+ * entries, plain and gzipped.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingRecoveryBenchmark {
+    private static final int BOOKINGS_PER_WORKSPACE = 1000;
+
+    @Param({"10000", "1000000"})
+    public int bookings;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private Path directory;
+    private int workspaceCount;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BenchmarkData.createTempDirectory();
+        workspaceCount = Math.max(1, bookings / BOOKINGS_PER_WORKSPACE);
+        List<Workspace> workspaces = BenchmarkData.workspaces(workspaceCount);
+        DurableBookingRepository repository = open(workspaces);
+        BookingServiceImpl bookingService = new BookingServiceImpl(repository);
+        Customer customer = new Customer("history", "history");
+        for (int i = 0; i < bookings; i++) {
+            LocalTime start = LocalTime.MIDNIGHT.plusMinutes(i / workspaceCount);
+            bookingService.makeReservation(customer, bookingService.createBooking(customer,
+                    workspaces.get(i % workspaceCount), BenchmarkData.DAY, start, start.plusMinutes(1)));
+        }
+        repository.snapshot();
+        repository.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public int load() throws Exception {
+        DurableBookingRepository repository = open(BenchmarkData.workspaces(workspaceCount));
+        try {
+            return repository.load();
+        } finally {
+            repository.close();
+        }
+    }
+
+    private DurableBookingRepository open(List<Workspace> workspaces) throws IOException {
+        Map<Long, Workspace> byId = new HashMap<>();
+        for (Workspace workspace : workspaces) {
+            byId.put(workspace.getId(), workspace);
+        }
+        Map<String, Customer> customers = new HashMap<>();
+        return new DurableBookingRepository(directory, new IndexedBookingRepository(), gzip, byId::get, name -> null,
+                userName -> customers.computeIfAbsent(userName, name -> new Customer(name, null)));
+    }
+}
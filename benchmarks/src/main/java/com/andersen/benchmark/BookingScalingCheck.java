@@ -0,0 +1,119 @@
+package com.andersen.benchmark;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.exception.BookingConflictException;
+import com.andersen.repository.booking.IndexedBookingRepository;
+import com.andersen.service.booking.BookingServiceImpl;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stress check for the reservation engine: reserve-and-cancel round trips through
+ * {@link BookingServiceImpl} with 1, 2, 4 ... threads, each on a workspace of its own. Unrelated
+ * workspaces share no lock, so throughput should grow close to linearly with the thread count up to
+ * the number of cores. Prints throughput, speedup and efficiency (speedup per thread) for every
+ * step and exits with status 1 if the efficiency of the largest step that still fits the cores is
+ * below {@code min efficiency}.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar com.andersen.benchmark.BookingScalingCheck [max threads]
+ * [seconds per step] [min efficiency]}
+ */
+public class BookingScalingCheck {
+    private static final int FREE_SLOTS = 12 * 60;
+    private static final LocalTime FREE_FROM = LocalTime.of(8, 0);
+    private static final long WARMUP_MILLIS = 1000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        double minEfficiency = args.length > 2 ? Double.parseDouble(args[2]) : 0.7;
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d cores, up to %d threads, %d s per step%n", cores, maxThreads, seconds);
+        System.out.printf("%8s %14s %10s %12s%n", "threads", "round trips/s", "speedup", "efficiency");
+        double single = 0;
+        double checked = 1;
+        for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+            double throughput = measure(threads, seconds);
+            if (threads == 1) {
+                single = throughput;
+            }
+            double speedup = throughput / single;
+            double efficiency = speedup / threads;
+            if (threads <= cores) {
+                checked = efficiency;
+            }
+            System.out.printf("%8d %14.0f %9.2fx %11.0f%%%n", threads, throughput, speedup, 100 * efficiency);
+            if (threads >= maxThreads) {
+                break;
+            }
+        }
+        if (checked < minEfficiency) {
+            System.out.printf("Scaling below %.0f%% efficiency%n", 100 * minEfficiency);
+            System.exit(1);
+        }
+    }
+
+    // Round trips per second over the measured window, after a warmup on the same service
+    private static double measure(int threads, int seconds) throws InterruptedException {
+        BookingServiceImpl bookingService = new BookingServiceImpl(new IndexedBookingRepository());
+        List<Workspace> workspaces = BenchmarkData.workspaces(threads);
+        AtomicBoolean measuring = new AtomicBoolean();
+        AtomicBoolean stopped = new AtomicBoolean();
+        CountDownLatch started = new CountDownLatch(threads);
+        long[] counts = new long[threads];
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            Customer customer = new Customer("scaling-" + t, "secret");
+            Workspace workspace = workspaces.get(t);
+            Thread worker = new Thread(() -> {
+                started.countDown();
+                long count = 0;
+                int slot = 0;
+                boolean counting = false;
+                while (!stopped.get()) {
+                    if (!counting && measuring.get()) {
+                        counting = true;
+                        count = 0;
+                    }
+                    LocalTime start = FREE_FROM.plusMinutes(slot);
+                    slot = (slot + 1) % FREE_SLOTS;
+                    Booking booking = bookingService.createBooking(customer, workspace, BenchmarkData.DAY,
+                            start, start.plusMinutes(1));
+                    try {
+                        bookingService.makeReservation(customer, booking);
+                    } catch (BookingConflictException e) {
+                        throw new IllegalStateException("Conflict on a workspace no other thread books", e);
+                    }
+                    bookingService.cancelReservation(customer, booking.getId());
+                    count++;
+                }
+                counts[index] = count;
+            }, "scaling-" + t);
+            worker.start();
+            workers.add(worker);
+        }
+        started.await();
+        Thread.sleep(WARMUP_MILLIS);
+        measuring.set(true);
+        long from = System.nanoTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+        stopped.set(true);
+        long elapsed = System.nanoTime() - from;
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total / (elapsed / 1e9);
+    }
+}
@@ -0,0 +1,104 @@
+package com.andersen.benchmark;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.repository.booking.IndexedBookingRepository;
+import com.andersen.service.booking.BookingServiceImpl;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reserve-then-cancel round trips through {@link BookingServiceImpl} on top of an existing
+ * booking history of {@code existingBookings} entries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+    // Pre-filled bookings take one-minute slots from midnight; the benchmark books after 17:00
+    private static final int BOOKINGS_PER_WORKSPACE = 1000;
+    private static final int FREE_SLOTS = 6 * 60;
+    private static final LocalTime FREE_FROM = LocalTime.of(17, 0);
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+        @Param({"10", "1000", "100000", "1000000"})
+        public int existingBookings;
+
+        BookingServiceImpl bookingService;
+        List<Workspace> workspaces;
+        final AtomicInteger threadCounter = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            bookingService = new BookingServiceImpl(new IndexedBookingRepository());
+            workspaces = BenchmarkData.workspaces(Math.max(64, existingBookings / BOOKINGS_PER_WORKSPACE));
+            Customer customer = new Customer("history", "history");
+            for (int i = 0; i < existingBookings; i++) {
+                Workspace workspace = workspaces.get(i % workspaces.size());
+                LocalTime start = LocalTime.MIDNIGHT.plusMinutes(i / workspaces.size());
+                bookingService.makeReservation(customer,
+                        bookingService.createBooking(customer, workspace, BenchmarkData.DAY, start, start.plusMinutes(1)));
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+        Customer customer;
+        Workspace workspace;
+        int slot;
+
+        @Setup(Level.Trial)
+        public void setUp(Catalog catalog) {
+            // Every thread works on its own workspace, so threads only share the repository
+            int thread = catalog.threadCounter.getAndIncrement();
+            customer = new Customer("bench-" + thread, "bench");
+            workspace = catalog.workspaces.get(thread % catalog.workspaces.size());
+        }
+
+        LocalTime nextStart() {
+            slot = (slot + 1) % FREE_SLOTS;
+            return FREE_FROM.plusMinutes(slot);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Booking reserveAndCancel(Catalog catalog, Caller caller) throws Exception {
+        return roundTrip(catalog, caller);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Booking reserveAndCancelConcurrent(Catalog catalog, Caller caller) throws Exception {
+        return roundTrip(catalog, caller);
+    }
+
+    private static Booking roundTrip(Catalog catalog, Caller caller) throws Exception {
+        LocalTime start = caller.nextStart();
+        Booking booking = catalog.bookingService.createBooking(caller.customer, caller.workspace, BenchmarkData.DAY,
+                start, start.plusMinutes(1));
+        catalog.bookingService.makeReservation(caller.customer, booking);
+        catalog.bookingService.cancelReservation(caller.customer, booking.getId());
+        return booking;
+    }
+}
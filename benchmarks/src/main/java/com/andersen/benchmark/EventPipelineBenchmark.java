@@ -0,0 +1,115 @@
+package com.andersen.benchmark;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.event.BookingJournalHandler;
+import com.andersen.event.EventPipeline;
+import com.andersen.repository.booking.DurableBookingRepository;
+import com.andersen.repository.booking.IndexedBookingRepository;
+import com.andersen.service.booking.BookingServiceImpl;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of reserve-then-cancel round trips on a {@link DurableBookingRepository} that writes its
+ * delta file on the reserving thread ({@code inline}) or from an {@link EventPipeline} handler
+ * ({@code pipeline}).
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventPipelineBenchmark {
+    private static final int WORKSPACES = 64;
+    private static final int FREE_SLOTS = 12 * 60;
+    private static final LocalTime FREE_FROM = LocalTime.of(8, 0);
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+        @Param({"inline", "pipeline"})
+        public String journal;
+
+        Path directory;
+        DurableBookingRepository repository;
+        EventPipeline events;
+        BookingServiceImpl bookingService;
+        List<Workspace> workspaces;
+        final AtomicInteger threadCounter = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            directory = BenchmarkData.createTempDirectory();
+            workspaces = BenchmarkData.workspaces(WORKSPACES);
+            Map<Long, Workspace> byId = new HashMap<>();
+            for (Workspace workspace : workspaces) {
+                byId.put(workspace.getId(), workspace);
+            }
+            repository = new DurableBookingRepository(directory, new IndexedBookingRepository(), false, byId::get,
+                    name -> null, userName -> new Customer(userName, null));
+            bookingService = new BookingServiceImpl(repository);
+            if (journal.equals("pipeline")) {
+                events = new EventPipeline(1 << 14);
+                events.addHandler("journal", new BookingJournalHandler(repository));
+                repository.deferJournal();
+                events.start();
+                bookingService.addListener(events);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            if (events != null) {
+                events.close();
+            }
+            repository.close();
+            BenchmarkData.deleteRecursively(directory);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+        Customer customer;
+        Workspace workspace;
+        int slot;
+
+        @Setup(Level.Trial)
+        public void setUp(Catalog catalog) {
+            int thread = catalog.threadCounter.getAndIncrement();
+            customer = new Customer("bench-" + thread, "bench");
+            workspace = catalog.workspaces.get(thread % catalog.workspaces.size());
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Booking reserveAndCancel(Catalog catalog, Caller caller) throws Exception {
+        caller.slot = (caller.slot + 1) % FREE_SLOTS;
+        LocalTime start = FREE_FROM.plusMinutes(caller.slot);
+        Booking booking = catalog.bookingService.createBooking(caller.customer, caller.workspace, BenchmarkData.DAY,
+                start, start.plusMinutes(1));
+        catalog.bookingService.makeReservation(caller.customer, booking);
+        catalog.bookingService.cancelReservation(caller.customer, booking.getId());
+        return booking;
+    }
+}
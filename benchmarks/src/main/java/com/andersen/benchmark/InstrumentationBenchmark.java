@@ -0,0 +1,66 @@
+package com.andersen.benchmark;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.metrics.Instrumented;
+import com.andersen.metrics.MetricsRegistry;
+import com.andersen.repository.booking.BookingRepository;
+import com.andersen.repository.booking.IndexedBookingRepository;
+import java.time.LocalTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost the metrics proxy adds to a call, measured on a cheap repository lookup with and without it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstrumentationBenchmark {
+    private BookingRepository direct;
+    private BookingRepository instrumented;
+    private long bookingId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        direct = new IndexedBookingRepository();
+        bookingId = direct.generateId();
+        direct.addBooking(new Booking(bookingId, new Customer("bench", "bench"), new Workspace("Desk", "Bench"),
+                BenchmarkData.DAY, LocalTime.of(9, 0), LocalTime.of(10, 0)));
+        instrumented = Instrumented.wrap(BookingRepository.class, direct, "BookingRepository", new MetricsRegistry());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Optional<Booking> direct() {
+        return direct.findById(bookingId);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Optional<Booking> instrumented() {
+        return instrumented.findById(bookingId);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Optional<Booking> instrumentedConcurrent() {
+        return instrumented.findById(bookingId);
+    }
+}
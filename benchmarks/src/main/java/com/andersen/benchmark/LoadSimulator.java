@@ -0,0 +1,249 @@
+package com.andersen.benchmark;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.exception.BookingConflictException;
+import com.andersen.metrics.LatencyHistogram;
+import com.andersen.repository.Page;
+import com.andersen.repository.booking.IndexedBookingRepository;
+import com.andersen.repository.user.UserRepositoryImpl;
+import com.andersen.repository.workspace.WorkspaceLog;
+import com.andersen.repository.workspace.WorkspaceRepositoryImpl;
+import com.andersen.service.auth.AuthService;
+import com.andersen.service.auth.AuthServiceImp;
+import com.andersen.service.booking.BookingService;
+import com.andersen.service.booking.BookingServiceImpl;
+import com.andersen.service.workspace.WorkspaceService;
+import com.andersen.service.workspace.WorkspaceServiceImpl;
+import com.andersen.util.VirtualThreads;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process load simulation of the service stack: {@link AuthServiceImp}, {@link WorkspaceServiceImpl}
+ * and {@link BookingServiceImpl} on a synthetic catalog, without the HTTP layer. Each synthetic
+ * customer runs on its own virtual thread (platform threads before Java 21) and loops over logging
+ * in again, browsing the catalog, reserving and cancelling, picked at random by the weights of the
+ * mix. Workspaces are chosen with Zipfian popularity, so a few hot workspaces draw most of the
+ * reservations and most of the conflicts.
+ * <p>
+ * Prints throughput, conflict rate, heap use and live bookings every few seconds, then latency
+ * percentiles per operation from {@link LatencyHistogram}.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar com.andersen.benchmark.LoadSimulator [customers] [seconds]
+ * [workspaces] [login:browse:reserve:cancel] [zipf exponent] [think ms]}
+ */
+public class LoadSimulator {
+    private static final String[] OPERATIONS = {"login", "browse", "reserve", "cancel"};
+    private static final int LOGIN = 0;
+    private static final int BROWSE = 1;
+    private static final int RESERVE = 2;
+    private static final int CANCEL = 3;
+
+    private static final int REPORT_SECONDS = 5;
+    private static final int PAGE_SIZE = 20;
+    private static final int DAYS = 30;
+    private static final LocalTime OPENING = LocalTime.of(8, 0);
+    private static final int QUARTERS_PER_DAY = 10 * 4;
+
+    public static void main(String[] args) throws Exception {
+        int customers = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int workspaceCount = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        String mixArgument = args.length > 3 ? args[3] : "5:45:30:20";
+        int[] mix = parseMix(mixArgument);
+        double exponent = args.length > 4 ? Double.parseDouble(args[4]) : 1.0;
+        long thinkMillis = args.length > 5 ? Long.parseLong(args[5]) : 0;
+
+        Path directory = BenchmarkData.createTempDirectory();
+        WorkspaceRepositoryImpl workspaceRepository = new WorkspaceRepositoryImpl(
+                BenchmarkData.writeCatalog(directory, workspaceCount).toString(),
+                directory.resolve("workspaces.log").toString(), WorkspaceLog.FsyncPolicy.NEVER, Long.MAX_VALUE);
+        UserRepositoryImpl users = new UserRepositoryImpl();
+        for (int i = 0; i < customers; i++) {
+            users.addUser(new Customer("customer" + i, "secret"));
+        }
+        IndexedBookingRepository bookings = new IndexedBookingRepository();
+        AuthService authService = new AuthServiceImp(users);
+        WorkspaceService workspaceService = new WorkspaceServiceImpl(workspaceRepository);
+        BookingService bookingService = new BookingServiceImpl(bookings);
+        List<Workspace> workspaces = workspaceService.getAllWorkspaces();
+        Zipf popularity = new Zipf(workspaces.size(), exponent);
+
+        System.out.printf("%d customers, %d workspaces, mix %s, zipf %.2f, think %d ms, %s%n", customers,
+                workspaces.size(), mixArgument, exponent, thinkMillis,
+                VirtualThreads.isAvailable() ? "virtual threads" : "platform threads");
+        System.out.printf("%8s %12s %10s %12s %14s%n", "seconds", "ops/s", "conflicts", "heap MB", "live bookings");
+
+        LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+        LongAdder operations = new LongAdder();
+        LongAdder reservations = new LongAdder();
+        LongAdder conflicts = new LongAdder();
+        LongAdder errors = new LongAdder();
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.SECONDS.toNanos(seconds);
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        long[] previous = new long[3];
+        reporter.scheduleAtFixedRate(() -> {
+            long ops = operations.sum();
+            long attempts = reservations.sum();
+            long rejected = conflicts.sum();
+            long intervalAttempts = attempts - previous[1];
+            long heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            System.out.printf("%8d %12.0f %9.1f%% %12d %14d%n", (System.nanoTime() - started) / 1_000_000_000,
+                    (double) (ops - previous[0]) / REPORT_SECONDS,
+                    intervalAttempts == 0 ? 0.0 : 100.0 * (rejected - previous[2]) / intervalAttempts,
+                    heap >> 20, bookings.getAllBookings().size());
+            previous[0] = ops;
+            previous[1] = attempts;
+            previous[2] = rejected;
+        }, REPORT_SECONDS, REPORT_SECONDS, TimeUnit.SECONDS);
+
+        ExecutorService executor = VirtualThreads.newPerTaskExecutor("customer");
+        for (int c = 0; c < customers; c++) {
+            String userName = "customer" + c;
+            executor.submit(() -> {
+                try {
+                    Customer customer = authService.loginCustomer(userName, "secret");
+                    String token = authService.createSession(customer);
+                    List<Long> reserved = new ArrayList<>();
+                    long browseCursor = Page.FIRST;
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        int operation = pick(mix, random);
+                        if (operation == CANCEL && reserved.isEmpty()) {
+                            operation = RESERVE;
+                        }
+                        long t0 = System.nanoTime();
+                        switch (operation) {
+                            case LOGIN -> {
+                                authService.logout(token);
+                                token = authService.createSession(authService.loginCustomer(userName, "secret"));
+                            }
+                            case BROWSE -> {
+                                Page<Workspace> page = workspaceService.getWorkspaces(browseCursor, PAGE_SIZE);
+                                browseCursor = page.hasNext() ? page.getNextCursor() : Page.FIRST;
+                                workspaceService.findById(workspaces.get(popularity.next(random)).getId());
+                            }
+                            case RESERVE -> {
+                                reservations.increment();
+                                Workspace workspace = workspaces.get(popularity.next(random));
+                                LocalDate date = BenchmarkData.DAY.plusDays(random.nextInt(DAYS));
+                                LocalTime start = OPENING.plusMinutes(15L * random.nextInt(QUARTERS_PER_DAY - 2));
+                                LocalTime end = start.plusMinutes(15L * (2 + random.nextInt(3)));
+                                Booking booking = bookingService.createBooking(customer, workspace, date, start, end);
+                                try {
+                                    bookingService.makeReservation(customer, booking);
+                                    reserved.add(booking.getId());
+                                } catch (BookingConflictException e) {
+                                    conflicts.increment();
+                                }
+                            }
+                            default -> {
+                                long id = reserved.remove(random.nextInt(reserved.size()));
+                                bookingService.cancelReservation(customer, id);
+                            }
+                        }
+                        latencies[operation].record(System.nanoTime() - t0);
+                        operations.increment();
+                        if (thinkMillis > 0) {
+                            Thread.sleep(thinkMillis);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    errors.increment();
+                    System.out.println(userName + " stopped: " + e);
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS)) {
+            System.out.println("Customers still running after the deadline; interrupting them.");
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+        reporter.shutdownNow();
+        workspaceRepository.close();
+        BenchmarkData.deleteRecursively(directory);
+
+        System.out.printf("%noperations: %d, errors: %d, throughput: %.0f ops/s, conflicts: %.1f%% of %d reservations%n",
+                operations.sum(), errors.sum(), operations.sum() / elapsedSeconds,
+                reservations.sum() == 0 ? 0.0 : 100.0 * conflicts.sum() / reservations.sum(), reservations.sum());
+        System.out.printf("%-8s %10s %10s %10s %10s %10s%n", "latency", "count", "p50 us", "p99 us", "p99.9 us", "max us");
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            LatencyHistogram histogram = latencies[i];
+            System.out.printf("%-8s %10d %10.1f %10.1f %10.1f %10.1f%n", OPERATIONS[i], histogram.getCount(),
+                    histogram.getValueAtQuantile(0.50) / 1e3, histogram.getValueAtQuantile(0.99) / 1e3,
+                    histogram.getValueAtQuantile(0.999) / 1e3, histogram.getMax() / 1e3);
+        }
+    }
+
+    private static int[] parseMix(String mix) {
+        String[] parts = mix.split(":");
+        if (parts.length != OPERATIONS.length) {
+            throw new IllegalArgumentException("Mix must be login:browse:reserve:cancel weights: " + mix);
+        }
+        int[] cumulative = new int[parts.length];
+        int total = 0;
+        for (int i = 0; i < parts.length; i++) {
+            total += Integer.parseInt(parts[i].trim());
+            cumulative[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Mix needs at least one positive weight: " + mix);
+        }
+        return cumulative;
+    }
+
+    private static int pick(int[] cumulative, ThreadLocalRandom random) {
+        int value = random.nextInt(cumulative[cumulative.length - 1]);
+        int operation = 0;
+        while (value >= cumulative[operation]) {
+            operation++;
+        }
+        return operation;
+    }
+
+    /**
+     * Samples ranks 0..n-1 with probability proportional to 1 / (rank + 1)^exponent.
+     */
+    private static final class Zipf {
+        private final double[] cumulative;
+
+        Zipf(int n, double exponent) {
+            cumulative = new double[n];
+            double total = 0;
+            for (int rank = 0; rank < n; rank++) {
+                total += 1 / Math.pow(rank + 1, exponent);
+                cumulative[rank] = total;
+            }
+            for (int rank = 0; rank < n; rank++) {
+                cumulative[rank] /= total;
+            }
+        }
+
+        int next(ThreadLocalRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1);
+        }
+    }
+}
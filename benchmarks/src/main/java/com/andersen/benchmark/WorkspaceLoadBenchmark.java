@@ -0,0 +1,62 @@
+package com.andersen.benchmark;
+
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.repository.workspace.WorkspaceLog;
+import com.andersen.repository.workspace.WorkspaceRepositoryImpl;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Startup cost of {@link WorkspaceRepositoryImpl#loadWorkspacesFromFile()} for a catalog of
+ * {@code workspaces} lines and an empty log.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WorkspaceLoadBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    public int workspaces;
+
+    private Path directory;
+    private Path catalog;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BenchmarkData.createTempDirectory();
+        catalog = BenchmarkData.writeCatalog(directory, workspaces);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public List<Workspace> loadWorkspacesFromFile() throws Exception {
+        WorkspaceRepositoryImpl repository = new WorkspaceRepositoryImpl(catalog.toString(),
+                directory.resolve("workspaces.log").toString(), WorkspaceLog.FsyncPolicy.NEVER, Long.MAX_VALUE);
+        try {
+            repository.loadWorkspacesFromFile();
+            return repository.getAllWorkspaces();
+        } finally {
+            repository.close();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.andersen.benchmark;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.repository.booking.IndexedBookingRepository;
+import com.andersen.repository.workspace.WorkspaceLog;
+import com.andersen.repository.workspace.WorkspaceRepositoryImpl;
+import com.andersen.service.booking.BookingServiceImpl;
+import com.andersen.service.search.WorkspaceSearchServiceImpl;
+import com.andersen.service.workspace.WorkspaceServiceImpl;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Free-workspace range queries over a catalog where every workspace holds a few random bookings,
+ * roughly half of them overlapping the 10:00-12:00 query window.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WorkspaceSearchBenchmark {
+    private static final LocalTime FROM = LocalTime.of(10, 0);
+    private static final LocalTime UNTIL = LocalTime.of(12, 0);
+
+    @Param({"1000", "100000"})
+    public int workspaces;
+
+    private Path directory;
+    private WorkspaceRepositoryImpl repository;
+    private WorkspaceSearchServiceImpl searchService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BenchmarkData.createTempDirectory();
+        repository = new WorkspaceRepositoryImpl(BenchmarkData.writeCatalog(directory, workspaces).toString(),
+                directory.resolve("workspaces.log").toString(), WorkspaceLog.FsyncPolicy.NEVER, Long.MAX_VALUE);
+        WorkspaceServiceImpl workspaceService = new WorkspaceServiceImpl(repository);
+        BookingServiceImpl bookingService = new BookingServiceImpl(new IndexedBookingRepository());
+        searchService = new WorkspaceSearchServiceImpl(workspaceService, bookingService);
+
+        Customer customer = new Customer("bench", "bench");
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (Workspace workspace : workspaceService.getAllWorkspaces()) {
+            for (int i = 0; i < 4; i++) {
+                LocalTime start = LocalTime.of(8 + random.nextInt(8), 15 * random.nextInt(4));
+                Booking booking = bookingService.createBooking(customer, workspace, BenchmarkData.DAY, start, start.plusMinutes(45));
+                try {
+                    bookingService.makeReservation(customer, booking);
+                } catch (Exception e) {
+                    // Overlapping draws are expected and simply skipped
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        repository.close();
+        BenchmarkData.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public List<Workspace> findFreeWorkspaces() {
+        return searchService.findFreeWorkspaces(BenchmarkData.DAY, FROM, UNTIL);
+    }
+}
@@ -0,0 +1,75 @@
+package com.andersen.benchmark;
+
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.repository.workspace.WorkspaceLog;
+import com.andersen.repository.workspace.WorkspaceRepositoryImpl;
+import com.andersen.service.workspace.WorkspaceServiceImpl;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Adds a workspace and removes it again by id, so the catalog size stays at {@code workspaces}.
+ * The log is not fsynced, so the numbers reflect the in-memory and append cost only.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WorkspaceServiceBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    public int workspaces;
+
+    private Path directory;
+    private WorkspaceRepositoryImpl repository;
+    private WorkspaceServiceImpl workspaceService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BenchmarkData.createTempDirectory();
+        Path catalog = BenchmarkData.writeCatalog(directory, workspaces);
+        repository = new WorkspaceRepositoryImpl(catalog.toString(), directory.resolve("workspaces.log").toString(),
+                WorkspaceLog.FsyncPolicy.NEVER, Long.MAX_VALUE);
+        workspaceService = new WorkspaceServiceImpl(repository);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        repository.close();
+        BenchmarkData.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Workspace removeAndReAdd() throws Exception {
+        return roundTrip();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Workspace removeAndReAddConcurrent() throws Exception {
+        return roundTrip();
+    }
+
+    private Workspace roundTrip() throws Exception {
+        Workspace workspace = new Workspace("Added", "Re-added by the benchmark");
+        workspaceService.addWorkspace(workspace);
+        workspaceService.removeById(workspace.getId());
+        return workspace;
+    }
+}
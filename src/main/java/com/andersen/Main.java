@@ -1,27 +1,145 @@
 package com.andersen;
 
 import com.andersen.controller.MenuController;
+import com.andersen.controller.api.ApiServer;
+import com.andersen.entity.role.UserRole;
+import com.andersen.entity.users.Admin;
+import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.event.BookingJournalHandler;
+import com.andersen.event.EventPipeline;
+import com.andersen.event.NotificationHandler;
 import com.andersen.exception.WorkspaceNotFoundException;
-import com.andersen.repository.booking.BookingRepositoryImpl;
+import com.andersen.metrics.Instrumented;
+import com.andersen.metrics.MetricsRegistry;
+import com.andersen.repository.booking.BookingArchive;
+import com.andersen.repository.booking.BookingRepository;
+import com.andersen.repository.booking.DurableBookingRepository;
+import com.andersen.repository.booking.IndexedBookingRepository;
+import com.andersen.repository.booking.OffHeapBookingRepository;
+import com.andersen.repository.booking.TieredBookingRepository;
+import com.andersen.repository.id.NodeIdLease;
+import com.andersen.repository.id.SnowflakeIdGenerator;
+import com.andersen.repository.user.UserRepository;
+import com.andersen.repository.user.UserRepositoryImpl;
+import com.andersen.repository.workspace.WorkspaceRepository;
 import com.andersen.repository.workspace.WorkspaceRepositoryImpl;
+import com.andersen.service.auth.AuthService;
+import com.andersen.service.auth.AuthServiceImp;
+import com.andersen.service.booking.BookingCompactor;
 import com.andersen.service.booking.BookingService;
 import com.andersen.service.booking.BookingServiceImpl;
+import com.andersen.service.export.BookingExportService;
+import com.andersen.service.export.BookingExportServiceImpl;
+import com.andersen.service.search.WorkspaceSearchService;
+import com.andersen.service.search.WorkspaceSearchServiceImpl;
+import com.andersen.service.stats.OccupancyService;
+import com.andersen.service.stats.OccupancyServiceImpl;
 import com.andersen.service.workspace.WorkspaceService;
 import com.andersen.service.workspace.WorkspaceServiceImpl;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 public class Main {
-    public static void main(String[] args) throws WorkspaceNotFoundException {
-        Scanner scanner = new Scanner(System.in);
+    private static final String HTTP_OPTION = "--http";
+    private static final String OFF_HEAP_OPTION = "--off-heap-bookings";
+    private static final int DEFAULT_HTTP_PORT = 8080;
+    private static final int EVENT_BUFFER_SIZE = 1 << 14;
+
+    public static void main(String[] args) throws WorkspaceNotFoundException, IOException {
+
+        // Services and repositories are used through instrumented proxies; see data/metrics.txt or JMX
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.publishToJmx();
+        metrics.startPeriodicDump(Path.of("data", "metrics.txt"), 1, TimeUnit.MINUTES);
+
+        UserRepository userRepository = new UserRepositoryImpl();
+        userRepository.addUser(new Admin("admin", "admin"));
+        userRepository.addUser(new Customer("magdy", "magdy"));
+        userRepository = Instrumented.wrap(UserRepository.class, userRepository, "UserRepository", metrics);
+        AuthService authService = Instrumented.wrap(AuthService.class, new AuthServiceImp(userRepository),
+                "AuthService", metrics);
 
-        WorkspaceRepositoryImpl workspaceRepository = new WorkspaceRepositoryImpl();
-        WorkspaceService workspaceService = new WorkspaceServiceImpl(workspaceRepository);
+        WorkspaceRepository workspaceRepository = Instrumented.wrap(WorkspaceRepository.class,
+                new WorkspaceRepositoryImpl(), "WorkspaceRepository", metrics);
+        WorkspaceService workspaceService = Instrumented.wrap(WorkspaceService.class,
+                new WorkspaceServiceImpl(workspaceRepository), "WorkspaceService", metrics);
 
-        BookingRepositoryImpl bookingRepository = new BookingRepositoryImpl();
-        BookingService bookingService = new BookingServiceImpl(bookingRepository);
+        // Keeps booking ids unique across every instance sharing the data directory
+        NodeIdLease nodeIdLease = NodeIdLease.acquire(Path.of("data"));
+        // --off-heap-bookings packs live bookings into direct memory instead of indexed heap objects
+        SnowflakeIdGenerator bookingIds = new SnowflakeIdGenerator(nodeIdLease.getNodeId());
+        BookingRepository liveBookings = Arrays.asList(args).contains(OFF_HEAP_OPTION)
+                ? new OffHeapBookingRepository(bookingIds)
+                : new IndexedBookingRepository(bookingIds);
 
+        // Bookings are restored against the loaded catalog by workspace id; records written before
+        // they carried the id fall back to the first workspace with their name
+        Map<String, Workspace> workspacesByName = new HashMap<>();
+        for (Workspace workspace : workspaceService.getAllWorkspaces()) {
+            workspacesByName.putIfAbsent(workspace.getName(), workspace);
+        }
+        UserRepository users = userRepository;
+        Function<String, Customer> customerResolver = userName -> users.findByUserName(userName, UserRole.CUSTOMER)
+                .map(user -> (Customer) user)
+                .orElseGet(() -> new Customer(userName, null));
+        DurableBookingRepository durableBookings = new DurableBookingRepository(Path.of("data", "bookings"),
+                liveBookings, true, id -> workspaceService.findById(id).orElse(null), workspacesByName::get,
+                customerResolver);
+        durableBookings.load();
+        durableBookings.startPeriodicSnapshots(5, TimeUnit.MINUTES);
 
-        MenuController menuController = new MenuController(workspaceService, bookingService, scanner);
+        // Past days move to compressed segments on disk and are read back only when queried
+        BookingArchive archive = new BookingArchive(Path.of("data", "bookings", "archive"),
+                id -> workspaceService.findById(id).orElse(null), customerResolver);
+        BookingRepository bookingRepository = Instrumented.wrap(BookingRepository.class,
+                new TieredBookingRepository(durableBookings, archive), "BookingRepository", metrics);
+        BookingServiceImpl bookingServiceImpl = new BookingServiceImpl(bookingRepository);
+        workspaceService.addListener(bookingServiceImpl);
+        BookingService bookingService = Instrumented.wrap(BookingService.class,
+                bookingServiceImpl, "BookingService", metrics);
+        WorkspaceSearchService searchService = new WorkspaceSearchServiceImpl(workspaceService, bookingService);
+
+        // Journaling, statistics and notifications run behind a ring buffer, off the reserving threads
+        EventPipeline events = new EventPipeline(EVENT_BUFFER_SIZE);
+        events.addHandler("journal", new BookingJournalHandler(durableBookings));
+        durableBookings.deferJournal();
+        OccupancyService occupancyService = new OccupancyServiceImpl(workspaceService, bookingService, events);
+        events.addHandler("notifications", new NotificationHandler(Path.of("data", "notifications.log")));
+        events.start();
+        bookingService.addListener(events);
+        workspaceService.addListener(events);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                events.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "events-drain"));
+        BookingExportService exportService = Instrumented.wrap(BookingExportService.class,
+                new BookingExportServiceImpl(bookingRepository), "BookingExportService", metrics);
+        new BookingCompactor(bookingService).start(1, TimeUnit.HOURS);
+
+        // --http[=port] serves the HTTP API instead of the console menu
+        for (String arg : args) {
+            if (arg.equals(HTTP_OPTION) || arg.startsWith(HTTP_OPTION + "=")) {
+                int port = arg.equals(HTTP_OPTION) ? DEFAULT_HTTP_PORT : Integer.parseInt(arg.substring(HTTP_OPTION.length() + 1));
+                ApiServer apiServer = new ApiServer(workspaceService, bookingService, authService);
+                apiServer.start(port);
+                System.out.println("HTTP API listening on port " + apiServer.getPort());
+                return;
+            }
+        }
+
+        Scanner scanner = new Scanner(System.in);
+        MenuController menuController = new MenuController(workspaceService, bookingService, authService, searchService,
+                exportService, occupancyService, scanner);
         menuController.mainMenu();
 
         scanner.close();
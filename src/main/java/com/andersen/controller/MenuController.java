@@ -1,29 +1,67 @@
 package com.andersen.controller;
 
 import com.andersen.entity.booking.Booking;
+import com.andersen.entity.role.User;
+import com.andersen.entity.users.Admin;
 import com.andersen.entity.users.Customer;
 import com.andersen.entity.workspace.Workspace;
+import com.andersen.exception.BookingConflictException;
+import com.andersen.exception.UserAuthenticationException;
 import com.andersen.exception.WorkspaceNotFoundException;
+import com.andersen.repository.Page;
 import com.andersen.repository.booking.BookingRepository;
 import com.andersen.repository.booking.BookingRepositoryImpl;
+import com.andersen.service.auth.AuthService;
 import com.andersen.service.booking.BookingService;
-import com.andersen.service.booking.BookingServiceImpl;
+import com.andersen.service.export.BookingExportService;
+import com.andersen.service.export.ExportFormat;
+import com.andersen.service.search.WorkspaceSearchService;
+import com.andersen.service.stats.DailyOccupancy;
+import com.andersen.service.stats.OccupancyService;
+import com.andersen.service.stats.WorkspaceOccupancy;
 import com.andersen.service.workspace.WorkspaceService;
-import com.andersen.service.workspace.WorkspaceServiceImpl;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Scanner;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
 
 public class MenuController {
-    private final WorkspaceServiceImpl workspaceService;
-    private final BookingServiceImpl bookingService;
+    private static final int PAGE_SIZE = 20;
+    private static final int REPORT_TOP_WORKSPACES = 10;
+
+    private final WorkspaceService workspaceService;
+    private final BookingService bookingService;
+    private final AuthService authService;
+    private final WorkspaceSearchService searchService;
+    private final BookingExportService exportService;
+    private final OccupancyService occupancyService;
     private final Scanner scanner;
-
-    public MenuController(WorkspaceService workspaceService, BookingService bookingService, Scanner scanner) {
-        this.workspaceService = (WorkspaceServiceImpl) workspaceService;
-        this.bookingService = (BookingServiceImpl) bookingService;
+    // Outcomes of waitlisted bookings, shown on the customer's next visit to the menu
+    private final Map<String, Queue<String>> waitlistNotices = new ConcurrentHashMap<>();
+
+    public MenuController(WorkspaceService workspaceService, BookingService bookingService, AuthService authService,
+                          WorkspaceSearchService searchService, BookingExportService exportService,
+                          OccupancyService occupancyService, Scanner scanner) {
+        this.workspaceService = workspaceService;
+        this.bookingService = bookingService;
+        this.authService = authService;
+        this.searchService = searchService;
+        this.exportService = exportService;
+        this.occupancyService = occupancyService;
         this.scanner = scanner;
     }
 
@@ -54,18 +92,15 @@ public class MenuController {
         System.out.print("Admin Password: ");
         String password = scanner.nextLine();
 
-        if (authenticateAdmin(username, password)) {
-            adminMenu();
-        } else {
+        try {
+            Admin admin = authService.loginAdmin(username, password);
+            adminMenu(authService.createSession(admin));
+        } catch (UserAuthenticationException e) {
             System.out.println("Invalid admin credentials. Please try again.");
         }
     }
 
-    private boolean authenticateAdmin(String username, String password) {
-        return "admin".equals(username) && "admin".equals(password);
-    }
-
-    private void adminMenu() throws WorkspaceNotFoundException {
+    private void adminMenu(String sessionToken) throws WorkspaceNotFoundException {
         System.out.println("Admin Logged In");
 
         while (true) {
@@ -73,15 +108,23 @@ public class MenuController {
             System.out.println("1. Add a new coworking space");
             System.out.println("2. Remove a coworking space");
             System.out.println("3. View all reservations");
-            System.out.println("4. Back");
+            System.out.println("4. Export reservations");
+            System.out.println("5. Occupancy report");
+            System.out.println("6. Back");
             System.out.print("Choose an option: ");
 
             int choice = getIntInput();
+            if (!(sessionUser(sessionToken) instanceof Admin)) {
+                return;
+            }
             switch (choice) {
                 case 1 -> addWorkspace();
                 case 2 -> removeWorkspace();
                 case 3 -> viewAllReservations();
-                case 4 -> {
+                case 4 -> exportReservations();
+                case 5 -> occupancyReport();
+                case 6 -> {
+                    authService.logout(sessionToken);
                     return; // Back to the main menu
                 }
                 default -> System.out.println("Invalid choice! Please try again.");
@@ -95,38 +138,48 @@ public class MenuController {
         System.out.print("Password: ");
         String password = scanner.nextLine();
 
-        Customer authenticatedCustomer = authenticateCustomer(username, password);
-        if (authenticatedCustomer != null) {
-            customerMenu(authenticatedCustomer);
-        } else {
+        try {
+            Customer customer = authService.loginCustomer(username, password);
+            customerMenu(authService.createSession(customer), customer.getUserName());
+        } catch (UserAuthenticationException e) {
             System.out.println("Invalid username or password. Please try again.");
         }
     }
 
-    private Customer authenticateCustomer(String username, String password) {
-        if ("magdy".equals(username) && "magdy".equals(password)) {
-            return new Customer(username, password);
+    // Each menu action re-validates the session with one cache lookup
+    private User sessionUser(String sessionToken) {
+        try {
+            return authService.getSessionUser(sessionToken);
+        } catch (UserAuthenticationException e) {
+            System.out.println(e.getMessage());
+            return null;
         }
-        return null; // Failed
     }
 
-    private void customerMenu(Customer customer) {
+    private void customerMenu(String sessionToken, String userName) {
         while (true) {
+            printWaitlistNotices(userName);
             System.out.println("\n=== Customer Menu ===");
             System.out.println("1. Browse available spaces");
             System.out.println("2. Make a reservation");
             System.out.println("3. View my reservations");
             System.out.println("4. Cancel a reservation");
-            System.out.println("5. Logout");
+            System.out.println("5. Search free spaces");
+            System.out.println("6. Logout");
             System.out.print("Choose an option: ");
 
             int choice = getIntInput();
+            if (!(sessionUser(sessionToken) instanceof Customer customer)) {
+                return;
+            }
             switch (choice) {
                 case 1 -> browseAvailableSpaces();
                 case 2 -> makeReservation(customer);
                 case 3 -> viewMyReservations(customer);
                 case 4 -> cancelReservation(customer);
-                case 5 -> {
+                case 5 -> searchFreeSpaces();
+                case 6 -> {
+                    authService.logout(sessionToken);
                     System.out.println("Logging out...");
                     return;
                 }
@@ -146,10 +199,10 @@ public class MenuController {
     }
 
     private void removeWorkspace() {
-        System.out.print("Enter workspace index to remove: ");
-        int index = getIntInput();
+        System.out.print("Enter workspace ID to remove: ");
+        long id = getIntInput();
         try {
-            workspaceService.removeWorkspace(index);
+            workspaceService.removeById(id);
             System.out.println("Workspace removed successfully!");
         } catch (WorkspaceNotFoundException e) {
             System.out.println(e.getMessage());
@@ -158,52 +211,130 @@ public class MenuController {
 
     private void viewAllReservations() {
         System.out.println("\n=== All Reservations ===");
-        List<Workspace> workspaces = workspaceService.getAllWorkspaces();
+        boolean any = printPages(null, cursor -> bookingService.getAllBookings(cursor, PAGE_SIZE),
+                booking -> System.out.println(" - Workspace: " + booking.getWorkspace().getName() +
+                        ", Customer: " + booking.getCustomer().getUserName() +
+                        ", Date: " + booking.getDate() +
+                        ", Start Time: " + booking.getStartTime() +
+                        ", End Time: " + booking.getEndTime()));
+        if (!any) {
+            System.out.println("No reservations.");
+        }
+    }
 
-        if (workspaces.isEmpty()) {
-            System.out.println("No workspaces available.");
+    private void occupancyReport() {
+        List<WorkspaceOccupancy> occupancy = occupancyService.getWorkspaceOccupancy();
+        if (occupancy.isEmpty()) {
+            System.out.println("No workspaces.");
+            return;
+        }
+        long bookedMinutes = occupancy.stream().mapToLong(WorkspaceOccupancy::getBookedMinutes).sum();
+        int days = occupancy.get(0).getDays();
+        if (days == 0) {
+            System.out.println("No reservations.");
             return;
         }
+        System.out.printf("%n=== Occupancy ===%nOverall: %.1f%% of %d workspaces booked over %d days%n",
+                100.0 * bookedMinutes / ((long) occupancy.size() * days * WorkspaceOccupancy.MINUTES_PER_DAY),
+                occupancy.size(), days);
+
+        System.out.println("Busiest workspaces:");
+        occupancy.stream()
+                .sorted(Comparator.comparingLong(WorkspaceOccupancy::getBookedMinutes).reversed())
+                .limit(REPORT_TOP_WORKSPACES)
+                .forEach(ws -> System.out.printf(" %d. %s - %d reservations, %.1f%% booked%n", ws.getWorkspace().getId(),
+                        ws.getWorkspace().getName(), ws.getBookings(), 100 * ws.getUtilization()));
+
+        System.out.println("Booked by hour:");
+        long[] byHour = occupancyService.getBookedMinutesByHour();
+        for (int hour = 0; hour < byHour.length; hour++) {
+            System.out.printf(" %02d:00 %5.1f%%%n", hour, 100.0 * byHour[hour] / ((long) occupancy.size() * days * 60));
+        }
 
-        for (Workspace workspace : workspaces) {
-            List<Booking> bookings = workspace.getBookings();
-            if (bookings.isEmpty()) {
-                System.out.println("Workspace: " + workspace.getName() + " has no reservations.");
-                continue;
-            }
+        System.out.println("Booked by day:");
+        for (DailyOccupancy day : occupancyService.getDailyOccupancy()) {
+            System.out.printf(" %s: %d reservations, %.1f%% booked%n", day.getDate(), day.getBookings(),
+                    100.0 * day.getBookedMinutes() / ((long) occupancy.size() * WorkspaceOccupancy.MINUTES_PER_DAY));
+        }
+    }
 
-            System.out.println("Workspace: " + workspace.getName());
-            for (Booking booking : bookings) {
-                System.out.println(" - Customer: " + booking.getCustomer().getUserName() +
-                        ", Start Time: " + booking.getStartTime() +
-                        ", End Time: " + booking.getEndTime());
+    // The format follows the extension: .csv or .jsonl, optionally followed by .gz
+    private void exportReservations() {
+        System.out.print("Export to (.csv or .jsonl, add .gz to compress): ");
+        String target = scanner.nextLine().trim();
+        boolean gzip = target.endsWith(".gz");
+        String name = gzip ? target.substring(0, target.length() - 3) : target;
+        ExportFormat format;
+        if (name.endsWith(ExportFormat.CSV.getExtension())) {
+            format = ExportFormat.CSV;
+        } else if (name.endsWith(ExportFormat.JSON_LINES.getExtension())) {
+            format = ExportFormat.JSON_LINES;
+        } else {
+            System.out.println("Unknown export format. Please use a .csv or .jsonl file name.");
+            return;
+        }
+        System.out.print("Number of files (1 for a single file): ");
+        int segments = getIntInput();
+        if (segments < 1) {
+            System.out.println("At least one file is required.");
+            return;
+        }
+
+        try {
+            Path path = Path.of(name);
+            long exported;
+            if (segments == 1) {
+                exported = exportService.exportAll(Path.of(target), format, gzip);
+            } else {
+                // Segments go into a directory named after the file, e.g. bookings.csv -> bookings/
+                String directory = path.getFileName().toString();
+                exported = exportService.exportByWorkspace(path.resolveSibling(
+                        directory.substring(0, directory.length() - format.getExtension().length())),
+                        format, gzip, segments);
             }
+            System.out.println("Exported " + exported + " reservations.");
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Export failed: " + e.getMessage());
         }
     }
 
     private void browseAvailableSpaces() {
-        List<Workspace> workspaces = workspaceService.getAllWorkspaces();
-        if (workspaces.isEmpty()) {
+        boolean any = printPages("Available Workspaces:", cursor -> workspaceService.getWorkspaces(cursor, PAGE_SIZE),
+                ws -> System.out.println(ws.getId() + ". " + ws.getName() + " - " + ws.getDescription()));
+        if (!any) {
             System.out.println("No available spaces.");
-        } else {
-            System.out.println("Available Workspaces:");
-            for (int i = 0; i < workspaces.size(); i++) {
-                Workspace ws = workspaces.get(i);
-                System.out.println((i + 1) + ". " + ws.getName() + " - " + ws.getDescription());
-            }
+        }
+    }
+
+    private void searchFreeSpaces() {
+        LocalDate date = getValidDate("Date (yyyy-MM-dd): ");
+        LocalTime startTime = getValidTime("Free from (HH:mm): ");
+        LocalTime endTime = getValidTime("Free until (HH:mm): ");
+        if (!endTime.isAfter(startTime)) {
+            System.out.println("End time must be after start time. Please try again.");
+            return;
+        }
+
+        List<Workspace> free = searchService.findFreeWorkspaces(date, startTime, endTime);
+        if (free.isEmpty()) {
+            System.out.println("No spaces are free on " + date + " between " + startTime + " and " + endTime + ".");
+            return;
+        }
+        System.out.println("Free on " + date + " between " + startTime + " and " + endTime + ":");
+        for (Workspace ws : free) {
+            System.out.println(ws.getId() + ". " + ws.getName() + " - " + ws.getDescription());
         }
     }
 
     private void makeReservation(Customer customer) {
-        System.out.print("Enter workspace index to reserve: ");
-        int index = getIntInput() - 1;
-        List<Workspace> workspaces = workspaceService.getAllWorkspaces();
-        if (index < 0 || index >= workspaces.size()) {
-            System.out.println("Invalid workspace index. Please try again.");
+        System.out.print("Enter workspace ID to reserve: ");
+        Workspace selectedWorkspace = workspaceService.findById(getIntInput()).orElse(null);
+        if (selectedWorkspace == null) {
+            System.out.println("Invalid workspace ID. Please try again.");
             return;
         }
 
-        Workspace selectedWorkspace = workspaces.get(index);
+        LocalDate date = getValidDate("Enter reservation date (yyyy-MM-dd): ");
         LocalTime startTime = getValidTime("Enter reservation start time (HH:mm): ");
         LocalTime endTime = getValidTime("Enter reservation end time (HH:mm): ");
 
@@ -213,14 +344,66 @@ public class MenuController {
             return;
         }
 
-        // Create the booking using the service method
-        Booking booking = bookingService.createBooking(customer, selectedWorkspace, startTime, endTime);
+        // Create the booking using the service method; it rejects dates in the past
+        Booking booking;
+        try {
+            booking = bookingService.createBooking(customer, selectedWorkspace, date, startTime, endTime);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage() + " Please try again.");
+            return;
+        }
+
+        // Make the reservation; rejected if it overlaps an existing booking
+        try {
+            bookingService.makeReservation(customer, booking);
+        } catch (BookingConflictException e) {
+            System.out.println(e.getMessage());
+            offerWaitlist(customer, booking);
+            return;
+        }
+
+        System.out.println("Reservation made successfully for " + selectedWorkspace.getName() + " on " + date + " from " + startTime + " to " + endTime);
+    }
 
-        // Make the reservation
-        bookingService.makeReservation(customer, booking);
-        selectedWorkspace.addBooking(booking);
+    // The booking is confirmed as soon as a cancellation frees its time; the customer hears about it
+    // on their next visit to the menu
+    private void offerWaitlist(Customer customer, Booking booking) {
+        System.out.print("Join the waitlist for this time? (y/n): ");
+        if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+            return;
+        }
+        String description = booking.getWorkspace().getName() + " on " + booking.getDate() + " from "
+                + booking.getStartTime() + " to " + booking.getEndTime();
+        CompletableFuture<Booking> reservation = bookingService.reserveOrWait(customer, booking, 0);
+        if (reservation.isDone()) {
+            try {
+                reservation.join();
+                System.out.println("Reservation made successfully for " + description);
+            } catch (CompletionException e) {
+                System.out.println(e.getCause().getMessage());
+            }
+            return;
+        }
+        System.out.println("You are on the waitlist for " + description + " (ID: " + booking.getId() + ").");
+        reservation.whenComplete((reserved, failure) -> {
+            String notice;
+            if (failure == null) {
+                notice = "Waitlisted reservation confirmed: " + description + " (ID: " + reserved.getId() + ")";
+            } else if (failure instanceof CancellationException) {
+                return; // Left the queue
+            } else {
+                notice = "Waitlisted reservation for " + description + " was not made: " + failure.getMessage();
+            }
+            waitlistNotices.computeIfAbsent(customer.getUserName(), name -> new ConcurrentLinkedQueue<>()).add(notice);
+        });
+    }
 
-        System.out.println("Reservation made successfully for " + selectedWorkspace.getName() + " from " + startTime + " to " + endTime);
+    private void printWaitlistNotices(String userName) {
+        Queue<String> notices = waitlistNotices.get(userName);
+        String notice;
+        while (notices != null && (notice = notices.poll()) != null) {
+            System.out.println(notice);
+        }
     }
 
     private LocalTime getValidTime(String prompt) {
@@ -235,7 +418,16 @@ public class MenuController {
         }
     }
 
-
+    private LocalDate getValidDate(String prompt) {
+        while (true) {
+            System.out.print(prompt);
+            try {
+                return LocalDate.parse(scanner.nextLine().trim());
+            } catch (DateTimeParseException e) {
+                System.out.println("Invalid date format. Please use yyyy-MM-dd.");
+            }
+        }
+    }
 
     private boolean isValidTimeFormat(String time) {
         try {
@@ -247,57 +439,64 @@ public class MenuController {
     }
 
     private void viewMyReservations(Customer customer) {
-        List<Booking> bookings = bookingService.getCustomerBookings(customer);
-        if (bookings.isEmpty()) {
+        if (!printCustomerBookings(customer)) {
             System.out.println("You have no reservations.");
-            return;
-        }
-
-        System.out.println("Your Reservations:");
-        for (Booking booking : bookings) {
-            System.out.println("ID: " + booking.getId() +
-                    ", Workspace: " + booking.getWorkspace().getName() +
-                    ", Start Time: " + booking.getStartTime() +
-                    ", End Time: " + booking.getEndTime());
         }
     }
 
     private void cancelReservation(Customer customer) {
-        List<Booking> bookings = bookingService.getCustomerBookings(customer);
-        if (bookings.isEmpty()) {
-            System.out.println("You have no reservations to cancel.");
-            return;
-        }
-
-        System.out.println("Your Reservations:");
-        for (Booking booking : bookings) {
-            System.out.println("ID: " + booking.getId() +
-                    ", Workspace: " + booking.getWorkspace().getName() +
-                    ", Start Time: " + booking.getStartTime() +
-                    ", End Time: " + booking.getEndTime());
+        // Waitlisted bookings are not listed, but their ids can be cancelled too
+        if (!printCustomerBookings(customer)) {
+            System.out.println("You have no reservations.");
         }
 
         System.out.print("Enter reservation ID to cancel: ");
-        String reservationId = scanner.nextLine();
-
-        // Find the booking by ID
-        Booking bookingToCancel = null;
-        for (Booking booking : bookings) {
-            if (String.valueOf(booking.getId()).equals(reservationId)) {
-                bookingToCancel = booking;
-                break;
-            }
-        }
-
-        if (bookingToCancel == null) {
+        long reservationId;
+        try {
+            reservationId = Long.parseLong(scanner.nextLine().trim());
+        } catch (NumberFormatException e) {
             System.out.println("No reservation found with that ID. Please try again.");
             return;
         }
 
-        // Cancel the booking
-        customer.getBookings().remove(bookingToCancel);
-        bookingService.cancelReservation(customer, bookingToCancel.getId());
-        System.out.println("Reservation canceled successfully!");
+        // Cancel the booking; the service checks that it belongs to this customer
+        if (bookingService.cancelReservation(customer, reservationId)) {
+            System.out.println("Reservation canceled successfully!");
+        } else {
+            System.out.println("No reservation found with the provided ID.");
+        }
+    }
+
+    private boolean printCustomerBookings(Customer customer) {
+        return printPages("Your Reservations:", cursor -> bookingService.getCustomerBookings(customer, cursor, PAGE_SIZE),
+                booking -> System.out.println("ID: " + booking.getId() +
+                        ", Workspace: " + booking.getWorkspace().getName() +
+                        ", Date: " + booking.getDate() +
+                        ", Start Time: " + booking.getStartTime() +
+                        ", End Time: " + booking.getEndTime()));
+    }
+
+    // Fetches and prints one page at a time, asking before the next, so the first rows show up at
+    // once however long the listing is
+    private <T> boolean printPages(String header, LongFunction<Page<T>> fetch, Consumer<T> printer) {
+        long cursor = Page.FIRST;
+        boolean any = false;
+        while (true) {
+            Page<T> page = fetch.apply(cursor);
+            if (!any && header != null && !page.getItems().isEmpty()) {
+                System.out.println(header);
+            }
+            page.getItems().forEach(printer);
+            any |= !page.getItems().isEmpty();
+            if (!page.hasNext()) {
+                return any;
+            }
+            System.out.print("Press Enter for more, or type q to stop: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                return any;
+            }
+            cursor = page.getNextCursor();
+        }
     }
 
     private int getIntInput() {
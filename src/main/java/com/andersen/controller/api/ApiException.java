@@ -0,0 +1,17 @@
+package com.andersen.controller.api;
+
+/**
+ * Ends an API request with the given HTTP status and a JSON error body.
+ */
+public class ApiException extends Exception {
+    private final int status;
+
+    public ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
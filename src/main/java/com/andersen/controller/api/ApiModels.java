@@ -0,0 +1,106 @@
+package com.andersen.controller.api;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.workspace.Workspace;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Request and response bodies of the HTTP API.
+ */
+public final class ApiModels {
+    private ApiModels() {
+    }
+
+    public static class LoginRequest {
+        public String username;
+        public String password;
+    }
+
+    public static class SessionResponse {
+        public final String token;
+
+        public SessionResponse(String token) {
+            this.token = token;
+        }
+    }
+
+    public static class WorkspaceRequest {
+        public String name;
+        public String description;
+    }
+
+    public static class WorkspaceResponse {
+        public final long id;
+        public final String name;
+        public final String description;
+
+        public WorkspaceResponse(Workspace workspace) {
+            this.id = workspace.getId();
+            this.name = workspace.getName();
+            this.description = workspace.getDescription();
+        }
+    }
+
+    public static class ReservationRequest {
+        public long workspaceId;
+        public LocalDate date;
+        public LocalTime startTime;
+        public LocalTime endTime;
+    }
+
+    public static class BookingResponse {
+        public final long id;
+        public final String customer;
+        public final String workspace;
+        public final LocalDate date;
+        public final LocalTime startTime;
+        public final LocalTime endTime;
+
+        public BookingResponse(Booking booking) {
+            this.id = booking.getId();
+            this.customer = booking.getCustomer().getUserName();
+            this.workspace = booking.getWorkspace().getName();
+            this.date = booking.getDate();
+            this.startTime = booking.getStartTime();
+            this.endTime = booking.getEndTime();
+        }
+    }
+
+    public static class PageResponse<T> {
+        public final List<T> items;
+        public final Long nextCursor;
+
+        public PageResponse(List<T> items, Long nextCursor) {
+            this.items = items;
+            this.nextCursor = nextCursor;
+        }
+    }
+
+    public static class StatusResponse {
+        public final String status;
+
+        public StatusResponse(String status) {
+            this.status = status;
+        }
+    }
+
+    public static class WaitlistResponse {
+        public final String status;
+        public final BookingResponse reservation;
+
+        public WaitlistResponse(String status, BookingResponse reservation) {
+            this.status = status;
+            this.reservation = reservation;
+        }
+    }
+
+    public static class ErrorResponse {
+        public final String error;
+
+        public ErrorResponse(String error) {
+            this.error = error;
+        }
+    }
+}
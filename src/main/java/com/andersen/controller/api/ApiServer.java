@@ -0,0 +1,433 @@
+package com.andersen.controller.api;
+
+import com.andersen.controller.api.ApiModels.BookingResponse;
+import com.andersen.controller.api.ApiModels.ErrorResponse;
+import com.andersen.controller.api.ApiModels.LoginRequest;
+import com.andersen.controller.api.ApiModels.PageResponse;
+import com.andersen.controller.api.ApiModels.ReservationRequest;
+import com.andersen.controller.api.ApiModels.SessionResponse;
+import com.andersen.controller.api.ApiModels.StatusResponse;
+import com.andersen.controller.api.ApiModels.WaitlistResponse;
+import com.andersen.controller.api.ApiModels.WorkspaceRequest;
+import com.andersen.controller.api.ApiModels.WorkspaceResponse;
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.role.User;
+import com.andersen.entity.users.Admin;
+import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.exception.BookingConflictException;
+import com.andersen.exception.UserAuthenticationException;
+import com.andersen.exception.WorkspaceNotFoundException;
+import com.andersen.repository.Page;
+import com.andersen.service.auth.AuthService;
+import com.andersen.service.booking.BookingService;
+import com.andersen.service.workspace.WorkspaceService;
+import com.andersen.util.VirtualThreads;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Embedded HTTP/JSON front end exposing the same operations as the console menu. Each request runs
+ * on its own thread from {@link VirtualThreads}, so blocking service calls never hold up other
+ * clients. Callers authenticate once and send the session token as {@code Authorization: Bearer}.
+ *
+ * <pre>
+ * POST   /api/login                   {username, password}        customer session
+ * POST   /api/admin/login             {username, password}        admin session
+ * GET    /api/workspaces?after={cursor}&limit={n}                 browse the catalog, one page at a time
+ * POST   /api/reservations            {workspaceId, date, startTime, endTime}
+ * GET    /api/reservations?after={cursor}&limit={n}               the caller's reservations, one page at a time
+ * DELETE /api/reservations/{id}                                   cancels a reservation or leaves the waitlist
+ * POST   /api/reservations/batch      [{workspaceId, date, startTime, endTime}, ...]   all or nothing
+ * POST   /api/reservations/waitlist   {workspaceId, date, startTime, endTime}   reserved, or queued until a cancellation frees the time
+ * POST   /api/reservations/cancel     [id, ...]                                            all or nothing
+ * GET    /api/admin/reservations?after={cursor}&limit={n}         every reservation, one page at a time
+ * POST   /api/admin/workspaces        {name, description}
+ * DELETE /api/admin/workspaces/{id}
+ * </pre>
+ * Listings return {@code {items, nextCursor}}; pass {@code nextCursor} back as {@code after} for the
+ * next page until it is null. {@code limit} defaults to 100 and is capped at 1000.
+ */
+public class ApiServer {
+    private static final String BEARER = "Bearer ";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final WorkspaceService workspaceService;
+    private final BookingService bookingService;
+    private final AuthService authService;
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private volatile CatalogView catalogView = new CatalogView(-1, List.of());
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public ApiServer(WorkspaceService workspaceService, BookingService bookingService, AuthService authService) {
+        this.workspaceService = workspaceService;
+        this.bookingService = bookingService;
+        this.authService = authService;
+    }
+
+    public synchronized void start(int port) throws IOException {
+        // Headers and body go out in separate writes; without TCP_NODELAY each response waits on delayed ACKs
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        server = HttpServer.create(new InetSocketAddress(port), 1024);
+        executor = VirtualThreads.newPerTaskExecutor("api");
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+        server.start();
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                Object response = route(exchange.getRequestMethod(), exchange.getRequestURI().getPath(), exchange);
+                send(exchange, 200, response);
+            } catch (ApiException e) {
+                send(exchange, e.getStatus(), new ErrorResponse(e.getMessage()));
+            } catch (RuntimeException e) {
+                send(exchange, 500, new ErrorResponse("Internal error: " + e.getMessage()));
+            }
+        }
+    }
+
+    private Object route(String method, String path, HttpExchange exchange) throws ApiException, IOException {
+        String[] segments = path.substring("/api/".length()).split("/");
+        String route = method + " " + segments[0];
+        switch (route) {
+            case "POST login" -> {
+                LoginRequest login = readLogin(exchange);
+                try {
+                    return new SessionResponse(authService.createSession(authService.loginCustomer(login.username, login.password)));
+                } catch (UserAuthenticationException e) {
+                    throw new ApiException(401, e.getMessage());
+                }
+            }
+            case "GET workspaces" -> {
+                Map<String, String> query = queryParameters(exchange);
+                return listWorkspaces(pageAfter(query), pageLimit(query));
+            }
+            case "POST reservations" -> {
+                Customer customer = authenticate(exchange, Customer.class);
+                if (segments.length == 1) {
+                    return reserve(customer, read(exchange, ReservationRequest.class));
+                }
+                switch (segments[1]) {
+                    case "batch" -> {
+                        return reserveAll(customer, read(exchange, ReservationRequest[].class));
+                    }
+                    case "waitlist" -> {
+                        return reserveOrWait(customer, read(exchange, ReservationRequest.class));
+                    }
+                    case "cancel" -> {
+                        List<Long> ids = Arrays.asList(read(exchange, Long[].class));
+                        if (ids.isEmpty() || ids.contains(null)) {
+                            throw new ApiException(400, "Expected a non-empty list of reservation IDs.");
+                        }
+                        if (!bookingService.cancelReservations(customer, ids)) {
+                            throw new ApiException(404, "No reservation found for one of the provided IDs.");
+                        }
+                        return new StatusResponse("Reservations canceled.");
+                    }
+                    default -> throw new ApiException(404, "No route for " + method + " " + path);
+                }
+            }
+            case "GET reservations" -> {
+                Customer customer = authenticate(exchange, Customer.class);
+                Map<String, String> query = queryParameters(exchange);
+                return toPage(bookingService.getCustomerBookings(customer, pageAfter(query), pageLimit(query)));
+            }
+            case "DELETE reservations" -> {
+                Customer customer = authenticate(exchange, Customer.class);
+                if (!bookingService.cancelReservation(customer, parseLong(segments, 1))) {
+                    throw new ApiException(404, "No reservation found with the provided ID.");
+                }
+                return new StatusResponse("Reservation canceled.");
+            }
+            default -> {
+                if (segments[0].equals("admin") && segments.length > 1) {
+                    return routeAdmin(method, segments, exchange);
+                }
+                throw new ApiException(404, "No route for " + method + " " + path);
+            }
+        }
+    }
+
+    private Object routeAdmin(String method, String[] segments, HttpExchange exchange) throws ApiException, IOException {
+        String route = method + " " + segments[1];
+        if (route.equals("POST login")) {
+            LoginRequest login = readLogin(exchange);
+            try {
+                return new SessionResponse(authService.createSession(authService.loginAdmin(login.username, login.password)));
+            } catch (UserAuthenticationException e) {
+                throw new ApiException(401, e.getMessage());
+            }
+        }
+        authenticate(exchange, Admin.class);
+        try {
+            switch (route) {
+                case "GET reservations" -> {
+                    Map<String, String> query = queryParameters(exchange);
+                    return toPage(bookingService.getAllBookings(pageAfter(query), pageLimit(query)));
+                }
+                case "POST workspaces" -> {
+                    WorkspaceRequest request = read(exchange, WorkspaceRequest.class);
+                    if (request.name == null || request.name.isBlank()) {
+                        throw new ApiException(400, "Workspace name is required.");
+                    }
+                    workspaceService.addWorkspace(new Workspace(request.name, request.description));
+                    return new StatusResponse("Workspace added.");
+                }
+                case "DELETE workspaces" -> {
+                    workspaceService.removeById(parseLong(segments, 2));
+                    return new StatusResponse("Workspace removed.");
+                }
+                default -> throw new ApiException(404, "No route for " + method + " /api/admin/" + segments[1]);
+            }
+        } catch (WorkspaceNotFoundException e) {
+            throw new ApiException(404, e.getMessage());
+        }
+    }
+
+    // The cached view is sorted by id like the catalog, so a page starts with a binary search
+    private PageResponse<WorkspaceResponse> listWorkspaces(long after, int limit) {
+        List<WorkspaceResponse> workspaces = catalogView().workspaces;
+        int low = 0;
+        int high = workspaces.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (workspaces.get(middle).id <= after) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        int end = (int) Math.min(workspaces.size(), (long) low + limit);
+        List<WorkspaceResponse> items = workspaces.subList(low, end);
+        return new PageResponse<>(items, end < workspaces.size() ? items.get(items.size() - 1).id : null);
+    }
+
+    // Rebuilt only when the catalog version moves. The version is read before the catalog, so a
+    // race can only pair an old version with a newer list, which the next call rebuilds.
+    private CatalogView catalogView() {
+        CatalogView view = catalogView;
+        long version = workspaceService.getCatalogVersion();
+        if (view.version == version) {
+            return view;
+        }
+        List<Workspace> workspaces = workspaceService.getAllWorkspaces();
+        List<WorkspaceResponse> response = new ArrayList<>(workspaces.size());
+        for (Workspace workspace : workspaces) {
+            response.add(new WorkspaceResponse(workspace));
+        }
+        view = new CatalogView(version, Collections.unmodifiableList(response));
+        catalogView = view;
+        return view;
+    }
+
+    private BookingResponse reserve(Customer customer, ReservationRequest request) throws ApiException {
+        Booking booking = toBooking(customer, request);
+        try {
+            bookingService.makeReservation(customer, booking);
+        } catch (BookingConflictException e) {
+            throw new ApiException(409, e.getMessage());
+        }
+        return new BookingResponse(booking);
+    }
+
+    // A queued booking keeps its id, shows up in GET /api/reservations once admitted and leaves the
+    // queue on DELETE /api/reservations/{id}
+    private WaitlistResponse reserveOrWait(Customer customer, ReservationRequest request) throws ApiException {
+        Booking booking = toBooking(customer, request);
+        CompletableFuture<Booking> reservation = bookingService.reserveOrWait(customer, booking, 0);
+        if (reservation.isCompletedExceptionally()) {
+            try {
+                reservation.join();
+            } catch (CompletionException e) {
+                throw new ApiException(409, e.getCause().getMessage());
+            }
+        }
+        return new WaitlistResponse(reservation.isDone() ? "Reserved" : "Waitlisted", new BookingResponse(booking));
+    }
+
+    private List<BookingResponse> reserveAll(Customer customer, ReservationRequest[] requests) throws ApiException {
+        if (requests.length == 0) {
+            throw new ApiException(400, "Expected a non-empty list of reservations.");
+        }
+        List<Booking> bookings = new ArrayList<>(requests.length);
+        for (ReservationRequest request : requests) {
+            bookings.add(toBooking(customer, request));
+        }
+        try {
+            bookingService.makeReservations(customer, bookings);
+        } catch (BookingConflictException e) {
+            throw new ApiException(409, e.getMessage());
+        }
+        return toResponses(bookings);
+    }
+
+    private Booking toBooking(Customer customer, ReservationRequest request) throws ApiException {
+        if (request == null) {
+            throw new ApiException(400, "Reservation is required.");
+        }
+        if (request.startTime == null || request.endTime == null || !request.endTime.isAfter(request.startTime)) {
+            throw new ApiException(400, "End time must be after start time.");
+        }
+        if (request.date == null) {
+            throw new ApiException(400, "Reservation date is required.");
+        }
+        Workspace workspace = workspaceService.findById(request.workspaceId)
+                .orElseThrow(() -> new ApiException(404, "Invalid workspace ID."));
+        try {
+            return bookingService.createBooking(customer, workspace, request.date, request.startTime, request.endTime);
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, e.getMessage());
+        }
+    }
+
+    private <T extends User> T authenticate(HttpExchange exchange, Class<T> role) throws ApiException {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith(BEARER)) {
+            throw new ApiException(401, "Missing bearer token.");
+        }
+        try {
+            User user = authService.getSessionUser(header.substring(BEARER.length()));
+            if (!role.isInstance(user)) {
+                throw new ApiException(403, "Not allowed for this user.");
+            }
+            return role.cast(user);
+        } catch (UserAuthenticationException e) {
+            throw new ApiException(401, e.getMessage());
+        }
+    }
+
+    private static List<BookingResponse> toResponses(Iterable<Booking> bookings) {
+        List<BookingResponse> response = new ArrayList<>();
+        for (Booking booking : bookings) {
+            response.add(new BookingResponse(booking));
+        }
+        return response;
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static long pageAfter(Map<String, String> query) throws ApiException {
+        return query.containsKey("after") ? parseQueryLong(query, "after") : Page.FIRST;
+    }
+
+    private static int pageLimit(Map<String, String> query) throws ApiException {
+        return query.containsKey("limit")
+                ? (int) Math.min(MAX_PAGE_SIZE, Math.max(1, parseQueryLong(query, "limit")))
+                : DEFAULT_PAGE_SIZE;
+    }
+
+    private static PageResponse<BookingResponse> toPage(Page<Booking> page) {
+        return new PageResponse<>(toResponses(page.getItems()), page.hasNext() ? page.getNextCursor() : null);
+    }
+
+    private static long parseQueryLong(Map<String, String> query, String name) throws ApiException {
+        try {
+            return Long.parseLong(query.get(name));
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Expected a number for '" + name + "'.");
+        }
+    }
+
+    private static long parseLong(String[] segments, int position) throws ApiException {
+        try {
+            return Long.parseLong(segments[position]);
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new ApiException(400, "Expected a numeric id in the path.");
+        }
+    }
+
+    private LoginRequest readLogin(HttpExchange exchange) throws ApiException {
+        LoginRequest login = read(exchange, LoginRequest.class);
+        if (login.username == null || login.password == null) {
+            throw new ApiException(400, "Username and password are required.");
+        }
+        return login;
+    }
+
+    // A JSON null body is rejected here, so callers only check the fields they need
+    private <T> T read(HttpExchange exchange, Class<T> type) throws ApiException {
+        T value;
+        try (InputStream body = exchange.getRequestBody()) {
+            value = mapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new ApiException(400, "Malformed request body: " + e.getMessage());
+        }
+        if (value == null) {
+            throw new ApiException(400, "Request body is required.");
+        }
+        return value;
+    }
+
+    private void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static final class CatalogView {
+        final long version;
+        final List<WorkspaceResponse> workspaces;
+
+        CatalogView(long version, List<WorkspaceResponse> workspaces) {
+            this.version = version;
+            this.workspaces = workspaces;
+        }
+    }
+}
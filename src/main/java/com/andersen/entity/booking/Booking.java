@@ -2,6 +2,7 @@ package com.andersen.entity.booking;
 
 import com.andersen.entity.users.Customer;
 import com.andersen.entity.workspace.Workspace;
+import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -13,20 +14,25 @@ public class Booking {
 
     private Workspace workspace;
 
+    private LocalDate date;
+
     private LocalTime startTime;
 
     private LocalTime endTime;
 
-    public Booking(Long generateId,Customer customer, Workspace selectedWorkspace, LocalTime startTime, LocalTime endTime) {
+    public Booking(Long generateId, Customer customer, Workspace selectedWorkspace, LocalDate date,
+                   LocalTime startTime, LocalTime endTime) {
         this.id = generateId;
         this.customer = customer;
         this.workspace = selectedWorkspace;
+        this.date = date;
         this.startTime = startTime;
         this.endTime = endTime;
     }
 
-    public Booking(Long idGenerator, Customer customer, Workspace selectedWorkspace, String startTime, String endTime) {
-        this(idGenerator, customer, selectedWorkspace, parseTime(startTime), parseTime(endTime));
+    public Booking(Long idGenerator, Customer customer, Workspace selectedWorkspace, LocalDate date,
+                   String startTime, String endTime) {
+        this(idGenerator, customer, selectedWorkspace, date, parseTime(startTime), parseTime(endTime));
     }
 
 
@@ -57,6 +63,10 @@ public class Booking {
         return workspace;
     }
 
+    public LocalDate getDate() {
+        return date;
+    }
+
     public LocalTime getStartTime() {
         return startTime;
     }
@@ -64,4 +74,17 @@ public class Booking {
     public LocalTime getEndTime() {
         return endTime;
     }
+
+    // Ids are unique, so bookings compare by id; a store may hand out several objects for one booking
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Booking booking)) return false;
+        return getId() == booking.getId();
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(getId());
+    }
 }
\ No newline at end of file
@@ -3,12 +3,13 @@ package com.andersen.entity.workspace;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Availability {
     private LocalDate date;
     private LocalTime time;
     private int capacity;
-    private int remaining;
+    private final AtomicInteger remaining = new AtomicInteger();
 
     public Availability() {
     }
@@ -16,7 +17,7 @@ public class Availability {
         this.date = date;
         this.time = time;
         this.capacity = capacity;
-        this.remaining = capacity;
+        this.remaining.set(capacity);
 
     }
 
@@ -33,14 +34,46 @@ public class Availability {
     }
 
     public int getRemaining() {
-        return remaining;
+        return remaining.get();
+    }
+
+    /**
+     * Atomically takes one seat.
+     *
+     * @return {@code false} if no seat was left
+     */
+    public boolean tryDecrement() {
+        int current;
+        do {
+            current = remaining.get();
+            if (current <= 0) {
+                return false;
+            }
+        } while (!remaining.compareAndSet(current, current - 1));
+        return true;
+    }
+
+    /**
+     * Atomically gives one seat back, never going above capacity.
+     *
+     * @return {@code false} if the slot was already at full capacity
+     */
+    public boolean tryIncrement() {
+        int current;
+        do {
+            current = remaining.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!remaining.compareAndSet(current, current + 1));
+        return true;
     }
 
     public void decrement() {
-        if (remaining > 0) remaining--;
+        tryDecrement();
     }
 
     public void increment() {
-        if (remaining < capacity) remaining++;
+        tryIncrement();
     }
 }
@@ -0,0 +1,37 @@
+package com.andersen.entity.workspace;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A booked interval on a workspace: the booking's id and times, without the booking itself.
+ */
+public class BookedSlot {
+    private final long bookingId;
+    private final LocalDate date;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+
+    public BookedSlot(long bookingId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        this.bookingId = bookingId;
+        this.date = date;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    public long getBookingId() {
+        return bookingId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+}
@@ -1,15 +1,30 @@
 package com.andersen.entity.workspace;
 
 import com.andersen.entity.booking.Booking;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class Workspace {
     private long id;
     private String name;
     private String description;
-    private List<Booking> bookings = new ArrayList<>();
-    private List<Availability> availabilities = new ArrayList<>();
+    // Booked intervals partitioned by day. Only the times and ids are kept, not the bookings, so the
+    // bookings themselves can live in whatever store the repository uses. Stored intervals never
+    // overlap, so neighbours within the day decide conflicts. Reads are lock-free, writers serialize
+    // on this workspace only and replace a day's schedule whole.
+    private final NavigableMap<LocalDate, DaySchedule> scheduleByDay = new ConcurrentSkipListMap<>();
+    private final List<Availability> availabilities = new CopyOnWriteArrayList<>();
+    private final Lock lock = new ReentrantLock();
 
     public Workspace() {
     }
@@ -43,16 +58,109 @@ public class Workspace {
         this.description = description;
     }
 
-    public List<Booking> getBookings() {
-        return bookings;
+    /**
+     * @return every booked interval, day by day in start time order
+     */
+    public List<BookedSlot> getBookedSlots() {
+        List<BookedSlot> slots = new ArrayList<>();
+        scheduleByDay.forEach((date, day) -> day.addTo(date, slots));
+        return slots;
     }
 
-    public void addBooking(Booking booking) {
-        bookings.add(booking);
+    /**
+     * @return the day's booked intervals in start time order
+     */
+    public List<BookedSlot> getBookedSlots(LocalDate date) {
+        DaySchedule day = scheduleByDay.get(date);
+        List<BookedSlot> slots = new ArrayList<>();
+        if (day != null) {
+            day.addTo(date, slots);
+        }
+        return slots;
     }
 
-    public void removeBooking(Booking booking) {
-        bookings.remove(booking);
+    /**
+     * @return the days that have at least one booking, in order
+     */
+    public NavigableSet<LocalDate> getBookingDates() {
+        return Collections.unmodifiableNavigableSet(scheduleByDay.navigableKeySet());
+    }
+
+    /**
+     * Adds the booking unless it overlaps an existing one.
+     *
+     * @return {@code false} if the booking conflicts and was not added
+     */
+    public boolean addBooking(Booking booking) {
+        lock.lock();
+        try {
+            if (isOverlapping(booking.getDate(), booking.getStartTime(), booking.getEndTime())) {
+                return false;
+            }
+            DaySchedule day = scheduleByDay.getOrDefault(booking.getDate(), DaySchedule.EMPTY);
+            scheduleByDay.put(booking.getDate(), day.with(booking.getStartTime().toSecondOfDay(),
+                    booking.getEndTime().toSecondOfDay(), booking.getId()));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean removeBooking(Booking booking) {
+        lock.lock();
+        try {
+            DaySchedule day = scheduleByDay.get(booking.getDate());
+            int index = day == null ? -1 : day.indexOf(booking.getStartTime().toSecondOfDay(), booking.getId());
+            if (index < 0) {
+                return false;
+            }
+            if (day.size() == 1) {
+                scheduleByDay.remove(booking.getDate());
+            } else {
+                scheduleByDay.put(booking.getDate(), day.without(index));
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forgets every booking on days before {@code date}, one partition at a time.
+     */
+    public void removeBookingsBefore(LocalDate date) {
+        lock.lock();
+        try {
+            scheduleByDay.headMap(date).clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Guards changes to this workspace's bookings. Reentrant, so a caller holding it can still use
+     * {@link #addBooking(Booking)}; callers locking several workspaces must use a consistent order.
+     */
+    public Lock getLock() {
+        return lock;
+    }
+
+    /**
+     * Compares times to the second.
+     */
+    public boolean isOverlapping(LocalDate date, LocalTime startTime, LocalTime endTime) {
+        DaySchedule day = scheduleByDay.get(date);
+        if (day == null) {
+            return false;
+        }
+        int start = startTime.toSecondOfDay();
+        // The last interval starting at or before start, and the one after it
+        int before = day.floor(start);
+        if (before >= 0 && day.ends[before] > start) {
+            return true;
+        }
+        int after = before + 1;
+        return after < day.size() && day.starts[after] < endTime.toSecondOfDay();
     }
 
     // Method to add availability
@@ -64,5 +172,83 @@ public class Workspace {
         return availabilities;
     }
 
+    public Availability findAvailability(LocalDate date, LocalTime time) {
+        for (Availability availability : availabilities) {
+            if (time.equals(availability.getTime()) && date.equals(availability.getDate())) {
+                return availability;
+            }
+        }
+        return null;
+    }
 
-}
\ No newline at end of file
+    /**
+     * One day's booked intervals as parallel arrays sorted by start second. Never modified once
+     * published; changes build a new schedule.
+     */
+    private static final class DaySchedule {
+        static final DaySchedule EMPTY = new DaySchedule(new int[0], new int[0], new long[0]);
+
+        final int[] starts;
+        final int[] ends;
+        final long[] ids;
+
+        DaySchedule(int[] starts, int[] ends, long[] ids) {
+            this.starts = starts;
+            this.ends = ends;
+            this.ids = ids;
+        }
+
+        int size() {
+            return starts.length;
+        }
+
+        // Index of the last interval starting at or before start, or -1
+        int floor(int start) {
+            int index = Arrays.binarySearch(starts, start);
+            return index >= 0 ? index : -index - 2;
+        }
+
+        int indexOf(int start, long id) {
+            int index = Arrays.binarySearch(starts, start);
+            return index >= 0 && ids[index] == id ? index : -1;
+        }
+
+        DaySchedule with(int start, int end, long id) {
+            int index = floor(start) + 1;
+            int size = size();
+            int[] newStarts = new int[size + 1];
+            int[] newEnds = new int[size + 1];
+            long[] newIds = new long[size + 1];
+            System.arraycopy(starts, 0, newStarts, 0, index);
+            System.arraycopy(ends, 0, newEnds, 0, index);
+            System.arraycopy(ids, 0, newIds, 0, index);
+            newStarts[index] = start;
+            newEnds[index] = end;
+            newIds[index] = id;
+            System.arraycopy(starts, index, newStarts, index + 1, size - index);
+            System.arraycopy(ends, index, newEnds, index + 1, size - index);
+            System.arraycopy(ids, index, newIds, index + 1, size - index);
+            return new DaySchedule(newStarts, newEnds, newIds);
+        }
+
+        DaySchedule without(int index) {
+            int size = size();
+            int[] newStarts = new int[size - 1];
+            int[] newEnds = new int[size - 1];
+            long[] newIds = new long[size - 1];
+            System.arraycopy(starts, 0, newStarts, 0, index);
+            System.arraycopy(ends, 0, newEnds, 0, index);
+            System.arraycopy(ids, 0, newIds, 0, index);
+            System.arraycopy(starts, index + 1, newStarts, index, size - index - 1);
+            System.arraycopy(ends, index + 1, newEnds, index, size - index - 1);
+            System.arraycopy(ids, index + 1, newIds, index, size - index - 1);
+            return new DaySchedule(newStarts, newEnds, newIds);
+        }
+
+        void addTo(LocalDate date, List<BookedSlot> slots) {
+            for (int i = 0; i < size(); i++) {
+                slots.add(new BookedSlot(ids[i], date, LocalTime.ofSecondOfDay(starts[i]), LocalTime.ofSecondOfDay(ends[i])));
+            }
+        }
+    }
+}
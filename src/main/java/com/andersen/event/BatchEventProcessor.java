@@ -0,0 +1,126 @@
+package com.andersen.event;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs one {@link EventHandler}: reads every event published since its last batch, hands them over
+ * in order and only then advances its sequence, which frees the slots for producers. Idle waits
+ * spin briefly, then yield, then park, so a quiet pipeline costs little CPU.
+ * <p>
+ * A failed event is retried, skipped or halts the pipeline, as the handler's
+ * {@link EventHandler#onFailure} decides. After a halt the processor keeps draining the ring
+ * without handling anything, so producers never wait on it. The processor stops only once the
+ * pipeline is closed, no publisher is between its closed check and its publish, and every claimed
+ * slot has been read.
+ */
+final class BatchEventProcessor implements Runnable {
+    private static final int SPINS = 100;
+    private static final int YIELDS = 100;
+    private static final long MAX_PARK_NANOS = 1_000_000;
+    private static final long FIRST_RETRY_NANOS = 1_000_000;
+    private static final long MAX_RETRY_NANOS = 1_000_000_000;
+
+    private final String name;
+    private final RingBuffer ring;
+    private final EventHandler handler;
+    private final EventPipeline pipeline;
+    private final Sequence sequence = new Sequence(-1);
+    private volatile boolean running = true;
+    private boolean failed;
+
+    BatchEventProcessor(String name, RingBuffer ring, EventHandler handler, EventPipeline pipeline) {
+        this.name = name;
+        this.ring = ring;
+        this.handler = handler;
+        this.pipeline = pipeline;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Sequence getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Stops once every event claimed so far has been handled.
+     */
+    void halt() {
+        running = false;
+    }
+
+    void onPipelineHalted() {
+        try {
+            handler.onHalt();
+        } catch (Exception e) {
+            System.out.println("Event handler " + name + " failed to take over after a halt: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void run() {
+        long next = sequence.get() + 1;
+        int idle = 0;
+        while (true) {
+            long claimed = ring.getCursor();
+            long available = claimed < next ? next - 1 : ring.getHighestPublished(next, claimed);
+            if (available < next) {
+                if (!running && !pipeline.isPublishing() && ring.getCursor() < next) {
+                    break;
+                }
+                idle = backOff(idle);
+                continue;
+            }
+            for (long current = next; current <= available; current++) {
+                DomainEvent event = ring.get(current);
+                if (!failed) {
+                    handle(event, current, current == available);
+                }
+                event.release();
+            }
+            sequence.set(available);
+            next = available + 1;
+            idle = 0;
+        }
+        try {
+            handler.onShutdown();
+        } catch (Exception e) {
+            System.out.println("Event handler " + name + " failed to shut down: " + e.getMessage());
+        }
+    }
+
+    private void handle(DomainEvent event, long current, boolean endOfBatch) {
+        for (int attempts = 1; ; attempts++) {
+            try {
+                handler.onEvent(event, current, endOfBatch);
+                return;
+            } catch (Exception e) {
+                switch (handler.onFailure(event, current, e, attempts)) {
+                    case SKIP -> {
+                        return;
+                    }
+                    case RETRY -> LockSupport.parkNanos(
+                            Math.min(MAX_RETRY_NANOS, FIRST_RETRY_NANOS << Math.min(attempts - 1, 10)));
+                    case HALT -> {
+                        failed = true;
+                        pipeline.halt(name, current, e);
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    // Parks grow from 1us to MAX_PARK_NANOS
+    private static int backOff(int idle) {
+        if (idle < SPINS) {
+            Thread.onSpinWait();
+        } else if (idle < SPINS + YIELDS) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, 1000L << (idle - SPINS - YIELDS)));
+        }
+        return Math.min(idle + 1, SPINS + YIELDS + 10);
+    }
+}
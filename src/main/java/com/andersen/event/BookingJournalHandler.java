@@ -0,0 +1,83 @@
+package com.andersen.event;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.repository.booking.DurableBookingRepository;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes reservations, cancellations and dropped days to the booking delta file of a
+ * {@link DurableBookingRepository} whose journal is deferred. Consecutive changes of the same kind
+ * go out together, so a batch costs one flush per run rather than one per booking.
+ * <p>
+ * Every change handed over here has already been acknowledged to its caller, so a failed write is
+ * retried until it succeeds rather than skipped; anything other than an I/O error halts the
+ * pipeline. Once the pipeline halts, for this handler's failure or another's, the repository
+ * journals changes itself again.
+ */
+public class BookingJournalHandler implements EventHandler {
+    private final DurableBookingRepository repository;
+    private final List<Booking> run = new ArrayList<>();
+    private boolean runRemoves;
+    private long lastBuffered = -1;
+
+    public BookingJournalHandler(DurableBookingRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+        // A retried event may already sit in the run, waiting for the flush that failed
+        if (sequence > lastBuffered) {
+            switch (event.getType()) {
+                case RESERVED -> append(event.getBooking(), false);
+                case CANCELLED -> append(event.getBooking(), true);
+                case DROPPED -> {
+                    flush();
+                    if (!event.getBookings().isEmpty()) {
+                        repository.journalDroppedBefore(event.getDate());
+                    }
+                }
+                default -> {
+                }
+            }
+            lastBuffered = sequence;
+        }
+        if (endOfBatch) {
+            flush();
+        }
+    }
+
+    @Override
+    public FailureAction onFailure(DomainEvent event, long sequence, Exception failure, int attempts) {
+        if (!(failure instanceof UncheckedIOException)) {
+            return FailureAction.HALT;
+        }
+        if (attempts == 1) {
+            System.out.println("Booking journal write failed, retrying: " + failure.getCause().getMessage());
+        }
+        return FailureAction.RETRY;
+    }
+
+    @Override
+    public void onHalt() throws IOException {
+        repository.resumeJournal();
+    }
+
+    private void append(Booking booking, boolean removed) {
+        if (!run.isEmpty() && removed != runRemoves) {
+            flush();
+        }
+        runRemoves = removed;
+        run.add(booking);
+    }
+
+    private void flush() {
+        if (!run.isEmpty()) {
+            repository.journal(run, runRemoves);
+            run.clear();
+        }
+    }
+}
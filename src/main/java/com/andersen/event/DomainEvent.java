@@ -0,0 +1,74 @@
+package com.andersen.event;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.workspace.Workspace;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One slot of the {@link EventPipeline} ring. Slots are allocated once and overwritten on every lap,
+ * so publishing allocates nothing; handlers must copy anything they keep past {@code onEvent}.
+ * The last handler to pass a slot clears its references, so a quiet ring does not keep dropped
+ * bookings reachable.
+ */
+public final class DomainEvent {
+    private EventType type;
+    private Booking booking;
+    private Workspace workspace;
+    private LocalDate date;
+    private Collection<Booking> bookings;
+    private final AtomicInteger pendingHandlers = new AtomicInteger();
+
+    void set(EventType type, Booking booking, Workspace workspace, LocalDate date, Collection<Booking> bookings,
+             int handlers) {
+        this.type = type;
+        this.booking = booking;
+        this.workspace = workspace;
+        this.date = date;
+        this.bookings = bookings;
+        pendingHandlers.set(handlers);
+    }
+
+    // Called by each handler's processor once it is done with the slot
+    void release() {
+        if (pendingHandlers.decrementAndGet() == 0) {
+            booking = null;
+            workspace = null;
+            date = null;
+            bookings = null;
+        }
+    }
+
+    public EventType getType() {
+        return type;
+    }
+
+    /**
+     * The booking reserved or cancelled.
+     */
+    public Booking getBooking() {
+        return booking;
+    }
+
+    /**
+     * The workspace added or removed.
+     */
+    public Workspace getWorkspace() {
+        return workspace;
+    }
+
+    /**
+     * The day bookings were dropped before.
+     */
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * The bookings dropped.
+     */
+    public Collection<Booking> getBookings() {
+        return bookings;
+    }
+}
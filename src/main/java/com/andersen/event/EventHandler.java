@@ -0,0 +1,34 @@
+package com.andersen.event;
+
+/**
+ * Consumes the events of an {@link EventPipeline} on a thread of its own, in publication order.
+ * Events arrive in batches of everything published since the previous batch, so a handler doing
+ * I/O should buffer and flush once at {@code endOfBatch}.
+ */
+public interface EventHandler {
+    void onEvent(DomainEvent event, long sequence, boolean endOfBatch) throws Exception;
+
+    /**
+     * Called when {@code onEvent} throws. A handler that retries must tolerate seeing the same
+     * event again. The default skips the event.
+     *
+     * @param attempts how many times {@code onEvent} has failed on this event
+     */
+    default FailureAction onFailure(DomainEvent event, long sequence, Exception failure, int attempts) {
+        return FailureAction.SKIP;
+    }
+
+    /**
+     * Called once when any handler halts the pipeline, on that handler's thread; events published
+     * from then on are not delivered. A handler that must not lose changes takes over their
+     * persistence here.
+     */
+    default void onHalt() throws Exception {
+    }
+
+    /**
+     * Called on the handler's thread once the pipeline has closed and every event has been handled.
+     */
+    default void onShutdown() throws Exception {
+    }
+}
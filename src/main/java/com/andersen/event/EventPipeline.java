@@ -0,0 +1,157 @@
+package com.andersen.event;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.service.booking.ReservationListener;
+import com.andersen.service.workspace.CatalogListener;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Moves the side effects of reservations and catalog changes off the callers' threads. Registered
+ * as a listener with the booking and workspace services, it turns every callback into a
+ * {@link DomainEvent} written into a preallocated ring, so the caller pays one slot claim and one
+ * publish. Each {@link EventHandler} runs on its own thread and sees every event in order, in
+ * batches, independently of the others; a handler more than a ring's length behind makes
+ * publishers wait.
+ * <p>
+ * Add the handlers, then {@link #start()}, then register the pipeline with the services.
+ * {@link #close()} waits for the handlers to drain; events published after it are dropped. A
+ * handler that halts on a failure closes the pipeline the same way, after every handler's
+ * {@link EventHandler#onHalt()} has run.
+ */
+public class EventPipeline implements ReservationListener, CatalogListener, AutoCloseable {
+    private static final long DRAIN_TIMEOUT_SECONDS = 30;
+
+    private final RingBuffer ring;
+    private final List<BatchEventProcessor> processors = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean closed;
+    // Publishers past the closed check; processors do not stop while there are any
+    private final AtomicInteger publishing = new AtomicInteger();
+    private final AtomicBoolean halted = new AtomicBoolean();
+    private boolean started;
+    private boolean drained;
+    private volatile int handlers;
+
+    /**
+     * @param size number of slots in the ring; a power of two
+     */
+    public EventPipeline(int size) {
+        this.ring = new RingBuffer(size);
+    }
+
+    public synchronized void addHandler(String name, EventHandler handler) {
+        if (started) {
+            throw new IllegalStateException("Handlers must be added before the pipeline starts.");
+        }
+        processors.add(new BatchEventProcessor(name, ring, handler, this));
+    }
+
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        ring.setGatingSequences(processors.stream().map(BatchEventProcessor::getSequence).toArray(Sequence[]::new));
+        for (BatchEventProcessor processor : processors) {
+            Thread thread = new Thread(processor, "events-" + processor.getName());
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        handlers = processors.size();
+        started = true;
+    }
+
+    @Override
+    public void onReserved(Booking booking) {
+        publish(EventType.RESERVED, booking, null, null, null);
+    }
+
+    @Override
+    public void onCancelled(Booking booking) {
+        publish(EventType.CANCELLED, booking, null, null, null);
+    }
+
+    @Override
+    public void onDropped(LocalDate before, Collection<Booking> bookings) {
+        publish(EventType.DROPPED, null, null, before, bookings);
+    }
+
+    @Override
+    public void onWorkspaceAdded(Workspace workspace) {
+        publish(EventType.WORKSPACE_ADDED, null, workspace, null, null);
+    }
+
+    @Override
+    public void onWorkspaceRemoved(Workspace workspace) {
+        publish(EventType.WORKSPACE_REMOVED, null, workspace, null, null);
+    }
+
+    /**
+     * Events published and not yet handled by the slowest handler.
+     */
+    public long getBacklog() {
+        long cursor = ring.getCursor();
+        return cursor - ring.getMinimumSequence(cursor);
+    }
+
+    @Override
+    public synchronized void close() throws InterruptedException {
+        // Still waits for the handlers when a halt has already closed the pipeline
+        if (drained) {
+            return;
+        }
+        drained = true;
+        closed = true;
+        for (BatchEventProcessor processor : processors) {
+            processor.halt();
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(DRAIN_TIMEOUT_SECONDS));
+        }
+    }
+
+    // Not synchronized: close() holds the lock while it waits for the calling processor. Runs the
+    // halt callbacks even while close() drains, since the events left are not handled either way.
+    void halt(String handler, long sequence, Exception failure) {
+        if (!halted.compareAndSet(false, true)) {
+            return;
+        }
+        closed = true;
+        System.out.println("Event pipeline halted: handler " + handler + " failed on event " + sequence + ": "
+                + failure.getMessage());
+        for (BatchEventProcessor processor : processors) {
+            processor.onPipelineHalted();
+        }
+        for (BatchEventProcessor processor : processors) {
+            processor.halt();
+        }
+    }
+
+    boolean isPublishing() {
+        return publishing.get() > 0;
+    }
+
+    // Publishers announce themselves before checking closed, so a processor that has seen the
+    // pipeline closed and no publishers left cannot miss a slot claimed after it stops
+    private void publish(EventType type, Booking booking, Workspace workspace, LocalDate date,
+                         Collection<Booking> bookings) {
+        publishing.incrementAndGet();
+        try {
+            if (closed) {
+                return;
+            }
+            long sequence = ring.next();
+            ring.get(sequence).set(type, booking, workspace, date, bookings, handlers);
+            ring.publish(sequence);
+        } finally {
+            publishing.decrementAndGet();
+        }
+    }
+}
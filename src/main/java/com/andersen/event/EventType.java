@@ -0,0 +1,10 @@
+package com.andersen.event;
+
+public enum EventType {
+    RESERVED,
+    CANCELLED,
+    /** Every booking dated before {@link DomainEvent#getDate()} was dropped. */
+    DROPPED,
+    WORKSPACE_ADDED,
+    WORKSPACE_REMOVED
+}
@@ -0,0 +1,13 @@
+package com.andersen.event;
+
+/**
+ * What a {@link BatchEventProcessor} does with an event its handler failed on.
+ */
+public enum FailureAction {
+    /** Moves on to the next event. */
+    SKIP,
+    /** Hands the same event to the handler again after a pause that grows with every attempt. */
+    RETRY,
+    /** Closes the pipeline; events not yet handled are discarded. */
+    HALT
+}
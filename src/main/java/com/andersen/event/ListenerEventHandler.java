@@ -0,0 +1,29 @@
+package com.andersen.event;
+
+import com.andersen.service.booking.ReservationListener;
+import com.andersen.service.workspace.CatalogListener;
+
+/**
+ * Delivers pipeline events to the listener interfaces the services call directly, so a listener
+ * can be moved off the callers' threads unchanged.
+ */
+public class ListenerEventHandler implements EventHandler {
+    private final ReservationListener reservations;
+    private final CatalogListener catalog;
+
+    public ListenerEventHandler(ReservationListener reservations, CatalogListener catalog) {
+        this.reservations = reservations;
+        this.catalog = catalog;
+    }
+
+    @Override
+    public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+        switch (event.getType()) {
+            case RESERVED -> reservations.onReserved(event.getBooking());
+            case CANCELLED -> reservations.onCancelled(event.getBooking());
+            case DROPPED -> reservations.onDropped(event.getDate(), event.getBookings());
+            case WORKSPACE_ADDED -> catalog.onWorkspaceAdded(event.getWorkspace());
+            case WORKSPACE_REMOVED -> catalog.onWorkspaceRemoved(event.getWorkspace());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.andersen.event;
+
+import com.andersen.entity.booking.Booking;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Appends a line per reservation, cancellation and catalog change to a notification log, flushed
+ * once per batch.
+ */
+public class NotificationHandler implements EventHandler {
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss");
+
+    private final BufferedWriter writer;
+
+    public NotificationHandler(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        this.writer = Files.newBufferedWriter(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) throws IOException {
+        if (event.getType() == EventType.DROPPED && event.getBookings().isEmpty()) {
+            if (endOfBatch) {
+                writer.flush();
+            }
+            return;
+        }
+        String message = switch (event.getType()) {
+            case RESERVED -> describe("Reserved", event.getBooking());
+            case CANCELLED -> describe("Cancelled", event.getBooking());
+            case DROPPED -> event.getBookings().size() + " bookings before " + event.getDate() + " moved to the archive";
+            case WORKSPACE_ADDED -> "Workspace added: " + event.getWorkspace().getName();
+            case WORKSPACE_REMOVED -> "Workspace removed: " + event.getWorkspace().getName();
+        };
+        writer.write(TIMESTAMP.format(LocalDateTime.now()) + " " + message);
+        writer.newLine();
+        if (endOfBatch) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public void onShutdown() throws IOException {
+        writer.close();
+    }
+
+    private static String describe(String action, Booking booking) {
+        return booking.getCustomer().getUserName() + ": " + action + " " + booking.getWorkspace().getName()
+                + " on " + booking.getDate() + " from " + booking.getStartTime() + " to " + booking.getEndTime()
+                + " (ID: " + booking.getId() + ")";
+    }
+}
@@ -0,0 +1,95 @@
+package com.andersen.event;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Preallocated multi-producer ring of {@link DomainEvent}s. A producer claims a sequence with one
+ * CAS on the cursor, fills the slot in place and publishes it by recording the lap number in
+ * {@code available}; consumers read up to the highest sequence published without gaps. Producers
+ * only wait when the ring is a full lap ahead of the slowest consumer.
+ */
+final class RingBuffer {
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final DomainEvent[] events;
+    private final int mask;
+    private final int lapShift;
+    private final int[] available;
+    private final Sequence cursor = new Sequence(-1);
+    private final Sequence gatingCache = new Sequence(-1);
+    private volatile Sequence[] gatingSequences = new Sequence[0];
+
+    RingBuffer(int size) {
+        if (size < 1 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Ring size must be a power of two: " + size);
+        }
+        events = new DomainEvent[size];
+        available = new int[size];
+        for (int i = 0; i < size; i++) {
+            events[i] = new DomainEvent();
+            available[i] = -1;
+        }
+        mask = size - 1;
+        lapShift = Integer.numberOfTrailingZeros(size);
+    }
+
+    void setGatingSequences(Sequence... sequences) {
+        gatingSequences = sequences.clone();
+    }
+
+    /**
+     * Claims the next slot, waiting while the ring is full.
+     */
+    long next() {
+        while (true) {
+            long current = cursor.get();
+            long next = current + 1;
+            long wrapPoint = next - events.length;
+            long cachedGating = gatingCache.get();
+            if (wrapPoint > cachedGating || cachedGating > current) {
+                long gating = getMinimumSequence(current);
+                if (wrapPoint > gating) {
+                    LockSupport.parkNanos(1);
+                    continue;
+                }
+                gatingCache.set(gating);
+            } else if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    DomainEvent get(long sequence) {
+        return events[(int) sequence & mask];
+    }
+
+    void publish(long sequence) {
+        AVAILABLE.setRelease(available, (int) sequence & mask, (int) (sequence >>> lapShift));
+    }
+
+    long getCursor() {
+        return cursor.get();
+    }
+
+    /**
+     * The highest sequence from {@code lowerBound} to {@code claimed} below which every slot is
+     * published; producers may publish out of order.
+     */
+    long getHighestPublished(long lowerBound, long claimed) {
+        for (long sequence = lowerBound; sequence <= claimed; sequence++) {
+            if ((int) AVAILABLE.getAcquire(available, (int) sequence & mask) != (int) (sequence >>> lapShift)) {
+                return sequence - 1;
+            }
+        }
+        return claimed;
+    }
+
+    long getMinimumSequence(long minimum) {
+        for (Sequence sequence : gatingSequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum;
+    }
+}
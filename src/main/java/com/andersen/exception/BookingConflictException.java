@@ -0,0 +1,12 @@
+package com.andersen.exception;
+
+public class BookingConflictException extends Exception {
+    public BookingConflictException(String message) {
+        super(message);
+    }
+
+
+    public BookingConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
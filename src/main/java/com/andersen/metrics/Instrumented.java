@@ -0,0 +1,50 @@
+package com.andersen.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Wraps a service or repository behind its interface and records the latency and outcome of every
+ * call as {@code <name>.<method>}. Metrics are resolved per method when the proxy is built, so a
+ * call costs two clock reads, one map lookup and the reflective dispatch.
+ */
+public final class Instrumented {
+    private Instrumented() {
+    }
+
+    public static <T> T wrap(Class<T> type, T target, String name, MetricsRegistry registry) {
+        Map<Method, OperationMetrics> metrics = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            // Overloads share one entry, as they do in the menus and logs
+            metrics.put(method, registry.operation(name + "." + method.getName()));
+        }
+        InvocationHandler handler = (proxy, method, args) -> {
+            OperationMetrics operation = metrics.get(method);
+            if (operation == null) {
+                return invoke(target, method, args); // equals, hashCode and toString
+            }
+            long started = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = invoke(target, method, args);
+                failed = false;
+                return result;
+            } finally {
+                operation.record(System.nanoTime() - started, failed);
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
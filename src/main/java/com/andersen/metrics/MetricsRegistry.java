@@ -0,0 +1,107 @@
+package com.andersen.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Named {@link OperationMetrics}, optionally published as platform MBeans under
+ * {@code com.andersen:type=Operation,name=<operation>} and dumped as text on a schedule.
+ */
+public class MetricsRegistry {
+    private static final String JMX_DOMAIN = "com.andersen";
+
+    private final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private volatile MBeanServer mBeanServer;
+    private ScheduledExecutorService dumpScheduler;
+
+    public OperationMetrics operation(String name) {
+        return operations.computeIfAbsent(name, key -> {
+            OperationMetrics metrics = new OperationMetrics(key);
+            register(metrics);
+            return metrics;
+        });
+    }
+
+    /**
+     * Publishes every operation, including ones created later, to the platform MBean server.
+     */
+    public synchronized void publishToJmx() {
+        if (mBeanServer != null) {
+            return;
+        }
+        mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        operations.values().forEach(this::register);
+    }
+
+    public String dump() {
+        StringBuilder text = new StringBuilder(String.format("%-50s %10s %8s %10s %10s %10s %10s %10s%n",
+                "operation", "calls", "errors", "mean(us)", "p50(us)", "p99(us)", "p999(us)", "max(us)"));
+        for (OperationMetrics metrics : new TreeMap<>(operations).values()) {
+            text.append(String.format("%-50s %10d %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    metrics.getName(), metrics.getCalls(), metrics.getErrors(), metrics.getMeanMicros(),
+                    metrics.getP50Micros(), metrics.getP99Micros(), metrics.getP999Micros(), metrics.getMaxMicros()));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Rewrites {@code file} with {@link #dump()} every period, replacing it atomically so readers
+     * never see half a report.
+     */
+    public synchronized void startPeriodicDump(Path file, long period, TimeUnit unit) {
+        if (dumpScheduler != null) {
+            return;
+        }
+        dumpScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumpScheduler.scheduleAtFixedRate(() -> writeDump(file), period, period, unit);
+    }
+
+    public synchronized void stop() {
+        if (dumpScheduler != null) {
+            dumpScheduler.shutdownNow();
+            dumpScheduler = null;
+        }
+    }
+
+    private void writeDump(Path file) {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.writeString(temporary, dump(), StandardCharsets.UTF_8);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("Metrics dump failed: " + e.getMessage());
+        }
+    }
+
+    private void register(OperationMetrics metrics) {
+        MBeanServer server = mBeanServer;
+        if (server == null) {
+            return;
+        }
+        try {
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":type=Operation,name=" + ObjectName.quote(metrics.getName()));
+            if (!server.isRegistered(name)) {
+                server.registerMBean(metrics, name);
+            }
+        } catch (JMException e) {
+            System.out.println("Could not publish metrics for " + metrics.getName() + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.andersen.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class OperationMetrics implements OperationMetricsMXBean {
+    private final String name;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    public OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long nanos, boolean failed) {
+        latencies.record(nanos);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    @Override
+    public long getCalls() {
+        return latencies.getCount();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return latencies.getMean() / 1_000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latencies.getValueAtQuantile(0.50) / 1_000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latencies.getValueAtQuantile(0.99) / 1_000.0;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return latencies.getValueAtQuantile(0.999) / 1_000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return latencies.getMax() / 1_000.0;
+    }
+}
@@ -0,0 +1,55 @@
+package com.andersen.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * One page of a keyset-paginated listing. The cursor is the key of the last item returned; pass it
+ * back to fetch the items after it. Fetching a page costs the same wherever it is in the listing.
+ */
+public final class Page<T> {
+    /**
+     * Cursor that starts a listing from the beginning.
+     */
+    public static final long FIRST = Long.MIN_VALUE;
+
+    private final List<T> items;
+    private final long nextCursor;
+    private final boolean hasNext;
+
+    public Page(List<T> items, long nextCursor, boolean hasNext) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    /**
+     * Takes up to {@code limit} items from an iterator positioned just after the cursor; only
+     * {@code limit + 1} items are ever touched.
+     */
+    public static <T> Page<T> of(Iterator<T> ordered, int limit, long cursor, ToLongFunction<T> key) {
+        List<T> items = new ArrayList<>(Math.min(limit, 256));
+        long nextCursor = cursor;
+        while (items.size() < limit && ordered.hasNext()) {
+            T item = ordered.next();
+            items.add(item);
+            nextCursor = key.applyAsLong(item);
+        }
+        return new Page<>(items, nextCursor, ordered.hasNext());
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public long getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+}
@@ -0,0 +1,174 @@
+package com.andersen.repository.booking;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Workspace;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Cold tier of the booking store: a directory of immutable {@link BookingSegment}s, one per
+ * archival run. Segments are never rewritten, so readers need no locking; only the sparse
+ * indexes are held in memory.
+ */
+public class BookingArchive implements AutoCloseable {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".bks";
+
+    private final Path directory;
+    private final LongFunction<Workspace> workspaceResolver;
+    private final Function<String, Customer> customerResolver;
+    private final List<BookingSegment> segments = new CopyOnWriteArrayList<>();
+    private long lastSequence;
+
+    public BookingArchive(Path directory, LongFunction<Workspace> workspaceResolver,
+                          Function<String, Customer> customerResolver) throws IOException {
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.workspaceResolver = workspaceResolver;
+        this.customerResolver = customerResolver;
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(BookingArchive::isSegment).sorted().toList();
+        }
+        for (Path file : files) {
+            segments.add(BookingSegment.open(file, workspaceResolver, customerResolver));
+            lastSequence = Math.max(lastSequence, sequenceOf(file));
+        }
+    }
+
+    /**
+     * Writes the bookings to a new segment. Returns once the segment is durable.
+     */
+    public synchronized void archive(Collection<Booking> bookings) throws IOException {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        List<Booking> sorted = new ArrayList<>(bookings);
+        sorted.sort(Comparator.comparingLong(Booking::getId));
+        Path file = directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, lastSequence + 1, SEGMENT_SUFFIX));
+        BookingSegment.write(file, sorted);
+        segments.add(BookingSegment.open(file, workspaceResolver, customerResolver));
+        lastSequence++;
+    }
+
+    public int size() {
+        return segments.stream().mapToInt(BookingSegment::size).sum();
+    }
+
+    /**
+     * Latest booking date in the archive, or {@code null} if it is empty.
+     */
+    public LocalDate getLastDate() {
+        LocalDate last = null;
+        for (BookingSegment segment : segments) {
+            LocalDate date = segment.getLastDate();
+            if (date != null && (last == null || date.isAfter(last))) {
+                last = date;
+            }
+        }
+        return last;
+    }
+
+    public Optional<Booking> findById(long id) {
+        for (BookingSegment segment : segments) {
+            Optional<Booking> booking = segment.findById(id);
+            if (booking.isPresent()) {
+                return booking;
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Iterator<Booking> iterator(long afterId) {
+        return merge(segments.stream().map(segment -> segment.iterator(afterId)).toList());
+    }
+
+    public Iterator<Booking> iteratorByCustomer(String userName, long afterId) {
+        return merge(segments.stream().map(segment -> segment.iteratorByCustomer(userName, afterId)).toList());
+    }
+
+    public Iterator<Booking> iteratorByDate(LocalDate date) {
+        return merge(segments.stream().map(segment -> segment.iteratorByDate(date)).toList());
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (BookingSegment segment : segments) {
+            segment.close();
+        }
+        segments.clear();
+    }
+
+    /**
+     * Merges iterators that are each in id order into one in id order.
+     */
+    static Iterator<Booking> merge(List<Iterator<Booking>> sources) {
+        if (sources.size() == 1) {
+            return sources.get(0);
+        }
+        PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(1, sources.size()),
+                Comparator.comparingLong(head -> head.booking.getId()));
+        for (Iterator<Booking> source : sources) {
+            if (source.hasNext()) {
+                heads.add(new Head(source.next(), source));
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Booking next() {
+                Head head = heads.poll();
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+                if (head.source.hasNext()) {
+                    heads.add(new Head(head.source.next(), head.source));
+                }
+                return head.booking;
+            }
+        };
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static final class Head {
+        final Booking booking;
+        final Iterator<Booking> source;
+
+        Head(Booking booking, Iterator<Booking> source) {
+            this.booking = booking;
+            this.source = source;
+        }
+    }
+}
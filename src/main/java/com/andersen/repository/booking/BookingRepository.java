@@ -1,17 +1,118 @@
 package com.andersen.repository.booking;
 
 import com.andersen.entity.booking.Booking;
+import com.andersen.entity.workspace.Workspace;
 
+import com.andersen.repository.Page;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public interface BookingRepository {
 
     public void addBooking(Booking booking);
 
-    public void removeBooking(Booking booking);
+    /**
+     * @return {@code true} if this call removed the booking
+     */
+    public boolean removeBooking(Booking booking);
+
+    /**
+     * Adds several bookings with a single flush to storage where the implementation persists.
+     */
+    default void addBookings(Collection<Booking> bookings) {
+        for (Booking booking : bookings) {
+            addBooking(booking);
+        }
+    }
+
+    /**
+     * Removes several bookings with a single flush to storage where the implementation persists.
+     */
+    default void removeBookings(Collection<Booking> bookings) {
+        for (Booking booking : bookings) {
+            removeBooking(booking);
+        }
+    }
 
-    public List<Booking> getAllBookings() ;
+    public Collection<Booking> getAllBookings() ;
     long generateId();
 
+    Optional<Booking> findById(long id);
+
+    /**
+     * @return read-only view of the customer's bookings
+     */
+    Collection<Booking> findByCustomer(String userName);
+
+    /**
+     * @return read-only view of the workspace's bookings
+     */
+    Collection<Booking> findByWorkspace(Workspace workspace);
+
+    /**
+     * @return read-only view of the bookings dated {@code date}
+     */
+    default Collection<Booking> findByDate(LocalDate date) {
+        return getAllBookings().stream()
+                .filter(booking -> booking.getDate().equals(date))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * @return read-only view of the customer's bookings dated {@code date}
+     */
+    default Collection<Booking> findByCustomer(String userName, LocalDate date) {
+        return findByCustomer(userName).stream()
+                .filter(booking -> booking.getDate().equals(date))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Removes every booking dated before {@code date}.
+     *
+     * @return the bookings removed
+     */
+    default Collection<Booking> removeBookingsBefore(LocalDate date) {
+        List<Booking> removed = new ArrayList<>();
+        for (Booking booking : List.copyOf(getAllBookings())) {
+            if (booking.getDate().isBefore(date) && removeBooking(booking)) {
+                removed.add(booking);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Bookings with an id greater than {@code afterId}, in id order. Ids only grow, so a cursor keeps
+     * its place however many bookings are added or cancelled between pages.
+     */
+    default Page<Booking> findPage(long afterId, int limit) {
+        return Page.of(inIdOrder(getAllBookings(), afterId), limit, afterId, Booking::getId);
+    }
+
+    /**
+     * Like {@link #findPage(long, int)}, restricted to one customer.
+     */
+    default Page<Booking> findPageByCustomer(String userName, long afterId, int limit) {
+        return Page.of(inIdOrder(findByCustomer(userName), afterId), limit, afterId, Booking::getId);
+    }
+
+    default Stream<Booking> streamBookings() {
+        return getAllBookings().stream();
+    }
 
+    private static Iterator<Booking> inIdOrder(Collection<Booking> bookings, long afterId) {
+        return bookings.stream()
+                .filter(booking -> booking.getId() > afterId)
+                .sorted(Comparator.comparingLong(Booking::getId))
+                .iterator();
+    }
 }
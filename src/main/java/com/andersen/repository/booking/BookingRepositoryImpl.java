@@ -1,11 +1,28 @@
 package com.andersen.repository.booking;
 
 import com.andersen.entity.booking.Booking;
-import java.util.ArrayList;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.repository.id.IdGenerator;
+import com.andersen.repository.id.SnowflakeIdGenerator;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
 
 public class BookingRepositoryImpl implements BookingRepository {
-    private final List<Booking> bookings = new ArrayList<>();
+    private final Queue<Booking> bookings = new ConcurrentLinkedQueue<>();
+    private final IdGenerator idGenerator;
+
+    public BookingRepositoryImpl() {
+        this(new SnowflakeIdGenerator(0));
+    }
+
+    public BookingRepositoryImpl(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
 
     @Override
     public void addBooking(Booking booking) {
@@ -13,19 +30,41 @@ public class BookingRepositoryImpl implements BookingRepository {
     }
 
     @Override
-    public void removeBooking(Booking booking) {
-        bookings.remove(booking);
+    public boolean removeBooking(Booking booking) {
+        return bookings.remove(booking);
     }
 
     @Override
-    public List<Booking> getAllBookings() {
-        return new ArrayList<>(bookings);
+    public Collection<Booking> getAllBookings() {
+        return Collections.unmodifiableCollection(bookings);
     }
 
     @Override
     public long generateId() {
+        return idGenerator.nextId();
+    }
+
+    @Override
+    public Optional<Booking> findById(long id) {
+        return bookings.stream()
+                .filter(booking -> booking.getId() == id)
+                .findFirst();
+    }
+
+    @Override
+    public Collection<Booking> findByCustomer(String userName) {
+        List<Booking> result = bookings.stream()
+                .filter(booking -> booking.getCustomer().getUserName().equals(userName))
+                .collect(Collectors.toList());
+        return Collections.unmodifiableList(result);
+    }
 
-        return System.currentTimeMillis();
+    @Override
+    public Collection<Booking> findByWorkspace(Workspace workspace) {
+        List<Booking> result = bookings.stream()
+                .filter(booking -> booking.getWorkspace() == workspace)
+                .collect(Collectors.toList());
+        return Collections.unmodifiableList(result);
     }
 
-}
\ No newline at end of file
+}
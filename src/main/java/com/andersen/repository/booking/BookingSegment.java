@@ -0,0 +1,382 @@
+package com.andersen.repository.booking;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Workspace;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Immutable on-disk run of archived bookings, sorted by id and cut into blocks of
+ * {@value #BLOCK_SIZE} records that are deflated independently.
+ * <p>
+ * The footer holds the sparse index: the id range, date range and file position of every block,
+ * and the blocks each customer appears in. It is the only part kept in memory, so finding a
+ * booking by id or paging through a customer's history inflates just the blocks involved.
+ * <p>
+ * Layout: {@code [block]... [footer] [long footer offset] [int magic]}.
+ */
+final class BookingSegment implements AutoCloseable {
+    static final int BLOCK_SIZE = 256;
+
+    private static final int MAGIC = 0x424b5347; // "BKSG"
+    private static final int TRAILER_SIZE = Long.BYTES + Integer.BYTES;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final LongFunction<Workspace> workspaceResolver;
+    private final Function<String, Customer> customerResolver;
+
+    // Sparse index, one entry per block
+    private final long[] firstIds;
+    private final long[] lastIds;
+    private final long[] offsets;
+    private final int[] lengths;
+    private final int[] minDays;
+    private final int[] maxDays;
+    private final Map<String, int[]> blocksByCustomer;
+    private final int size;
+
+    private BookingSegment(Path path, FileChannel channel, DataInputStream footer,
+                           LongFunction<Workspace> workspaceResolver,
+                           Function<String, Customer> customerResolver) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.workspaceResolver = workspaceResolver;
+        this.customerResolver = customerResolver;
+        int blocks = footer.readInt();
+        firstIds = new long[blocks];
+        lastIds = new long[blocks];
+        offsets = new long[blocks];
+        lengths = new int[blocks];
+        minDays = new int[blocks];
+        maxDays = new int[blocks];
+        int records = 0;
+        for (int i = 0; i < blocks; i++) {
+            firstIds[i] = footer.readLong();
+            lastIds[i] = footer.readLong();
+            offsets[i] = footer.readLong();
+            lengths[i] = footer.readInt();
+            minDays[i] = footer.readInt();
+            maxDays[i] = footer.readInt();
+            records += footer.readInt();
+        }
+        size = records;
+        int customers = footer.readInt();
+        blocksByCustomer = new HashMap<>(customers * 2);
+        for (int i = 0; i < customers; i++) {
+            String customer = footer.readUTF();
+            int[] customerBlocks = new int[footer.readInt()];
+            for (int b = 0; b < customerBlocks.length; b++) {
+                customerBlocks[b] = footer.readInt();
+            }
+            blocksByCustomer.put(customer, customerBlocks);
+        }
+    }
+
+    /**
+     * Writes the bookings, which must be sorted by id, to a new segment that appears under
+     * {@code path} atomically and durably.
+     */
+    static void write(Path path, List<Booking> bookings) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        ByteArrayOutputStream footerBytes = new ByteArrayOutputStream();
+        DataOutputStream footer = new DataOutputStream(footerBytes);
+        Map<String, List<Integer>> blocksByCustomer = new HashMap<>();
+        int blocks = (bookings.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        footer.writeInt(blocks);
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long offset = 0;
+            for (int block = 0; block < blocks; block++) {
+                List<Booking> records = bookings.subList(block * BLOCK_SIZE, Math.min(bookings.size(), (block + 1) * BLOCK_SIZE));
+                byte[] compressed = compress(records);
+                writeFully(channel, ByteBuffer.wrap(compressed));
+
+                int minDay = Integer.MAX_VALUE;
+                int maxDay = Integer.MIN_VALUE;
+                for (Booking booking : records) {
+                    int day = (int) booking.getDate().toEpochDay();
+                    minDay = Math.min(minDay, day);
+                    maxDay = Math.max(maxDay, day);
+                    List<Integer> customerBlocks = blocksByCustomer.computeIfAbsent(
+                            booking.getCustomer().getUserName(), key -> new ArrayList<>());
+                    if (customerBlocks.isEmpty() || customerBlocks.get(customerBlocks.size() - 1) != block) {
+                        customerBlocks.add(block);
+                    }
+                }
+                footer.writeLong(records.get(0).getId());
+                footer.writeLong(records.get(records.size() - 1).getId());
+                footer.writeLong(offset);
+                footer.writeInt(compressed.length);
+                footer.writeInt(minDay);
+                footer.writeInt(maxDay);
+                footer.writeInt(records.size());
+                offset += compressed.length;
+            }
+            footer.writeInt(blocksByCustomer.size());
+            for (Map.Entry<String, List<Integer>> entry : blocksByCustomer.entrySet()) {
+                footer.writeUTF(entry.getKey());
+                footer.writeInt(entry.getValue().size());
+                for (int block : entry.getValue()) {
+                    footer.writeInt(block);
+                }
+            }
+            footer.writeLong(offset);
+            footer.writeInt(MAGIC);
+            footer.flush();
+            writeFully(channel, ByteBuffer.wrap(footerBytes.toByteArray()));
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static BookingSegment open(Path path, LongFunction<Workspace> workspaceResolver,
+                               Function<String, Customer> customerResolver) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < TRAILER_SIZE) {
+                throw new IOException("Booking segment " + path + " is truncated.");
+            }
+            ByteBuffer trailer = readFully(channel, size - TRAILER_SIZE, TRAILER_SIZE);
+            long footerOffset = trailer.getLong();
+            if (trailer.getInt() != MAGIC || footerOffset < 0 || footerOffset > size - TRAILER_SIZE) {
+                throw new IOException("Booking segment " + path + " is corrupt.");
+            }
+            ByteBuffer footer = readFully(channel, footerOffset, (int) (size - TRAILER_SIZE - footerOffset));
+            return new BookingSegment(path, channel, new DataInputStream(
+                    new ByteArrayInputStream(footer.array())), workspaceResolver, customerResolver);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Latest booking date in the segment, or {@code null} if it is empty.
+     */
+    LocalDate getLastDate() {
+        return maxDays.length == 0 ? null : LocalDate.ofEpochDay(Arrays.stream(maxDays).max().getAsInt());
+    }
+
+    Optional<Booking> findById(long id) {
+        int block = lastBlockStartingAtOrBefore(id);
+        if (block < 0 || lastIds[block] < id) {
+            return Optional.empty();
+        }
+        for (Booking booking : readBlock(block)) {
+            if (booking.getId() == id) {
+                return Optional.of(booking);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Bookings with an id greater than {@code afterId}, in id order, inflated one block at a time.
+     */
+    Iterator<Booking> iterator(long afterId) {
+        int first = lastBlockStartingAtOrBefore(afterId);
+        int[] blocks = new int[firstIds.length - Math.max(first, 0)];
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = Math.max(first, 0) + i;
+        }
+        return new BlockIterator(blocks, booking -> booking.getId() > afterId);
+    }
+
+    Iterator<Booking> iteratorByCustomer(String userName, long afterId) {
+        int[] blocks = blocksByCustomer.get(userName);
+        if (blocks == null) {
+            return Collections.emptyIterator();
+        }
+        int first = 0;
+        while (first < blocks.length && lastIds[blocks[first]] <= afterId) {
+            first++;
+        }
+        return new BlockIterator(Arrays.copyOfRange(blocks, first, blocks.length),
+                booking -> booking.getId() > afterId && booking.getCustomer().getUserName().equals(userName));
+    }
+
+    Iterator<Booking> iteratorByDate(LocalDate date) {
+        int day = (int) date.toEpochDay();
+        int[] blocks = new int[firstIds.length];
+        int count = 0;
+        for (int block = 0; block < firstIds.length; block++) {
+            if (minDays[block] <= day && day <= maxDays[block]) {
+                blocks[count++] = block;
+            }
+        }
+        return new BlockIterator(Arrays.copyOf(blocks, count), booking -> booking.getDate().equals(date));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Binary search over the sparse index; -1 if every block starts after id
+    private int lastBlockStartingAtOrBefore(long id) {
+        int low = 0;
+        int high = firstIds.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (firstIds[middle] <= id) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+
+    private List<Booking> readBlock(int block) {
+        try {
+            ByteBuffer compressed = readFully(channel, offsets[block], lengths[block]);
+            try (DataInputStream in = new DataInputStream(
+                    new InflaterInputStream(new ByteArrayInputStream(compressed.array())))) {
+                int records = in.readInt();
+                List<Booking> bookings = new ArrayList<>(records);
+                for (int i = 0; i < records; i++) {
+                    long id = in.readLong();
+                    LocalDate date = LocalDate.ofEpochDay(in.readInt());
+                    LocalTime start = LocalTime.ofSecondOfDay(in.readInt());
+                    LocalTime end = LocalTime.ofSecondOfDay(in.readInt());
+                    long workspaceId = in.readLong();
+                    String workspaceName = in.readUTF();
+                    String customer = in.readUTF();
+                    bookings.add(new Booking(id, customerResolver.apply(customer), resolveWorkspace(workspaceId, workspaceName),
+                            date, start, end));
+                }
+                return bookings;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading booking segment " + path, e);
+        }
+    }
+
+    // Archived bookings may outlive their workspace; those get a detached stand-in
+    private Workspace resolveWorkspace(long id, String name) {
+        Workspace workspace = workspaceResolver.apply(id);
+        if (workspace == null) {
+            workspace = new Workspace(name, "");
+            workspace.setId(id);
+        }
+        return workspace;
+    }
+
+    private static byte[] compress(List<Booking> records) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(records.size() * 32);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            out.writeInt(records.size());
+            for (Booking booking : records) {
+                out.writeLong(booking.getId());
+                out.writeInt((int) booking.getDate().toEpochDay());
+                out.writeInt(booking.getStartTime().toSecondOfDay());
+                out.writeInt(booking.getEndTime().toSecondOfDay());
+                out.writeLong(booking.getWorkspace().getId());
+                out.writeUTF(booking.getWorkspace().getName());
+                out.writeUTF(booking.getCustomer().getUserName());
+            }
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of booking segment.");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private final class BlockIterator implements Iterator<Booking> {
+        private final int[] blocks;
+        private final Predicate<Booking> filter;
+        private int nextBlock;
+        private Iterator<Booking> current = Collections.emptyIterator();
+        private Booking next;
+
+        BlockIterator(int[] blocks, Predicate<Booking> filter) {
+            this.blocks = blocks;
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (current.hasNext()) {
+                    Booking candidate = current.next();
+                    if (filter.test(candidate)) {
+                        next = candidate;
+                    }
+                } else if (nextBlock < blocks.length) {
+                    current = readBlock(blocks[nextBlock++]).iterator();
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Booking next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Booking result = next;
+            next = null;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,618 @@
+package com.andersen.repository.booking;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.repository.Page;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@link BookingRepository} that survives restarts. Bookings are served from an in-memory repository
+ * such as {@link IndexedBookingRepository} or {@link OffHeapBookingRepository}; every change is also appended as one JSON line to a delta file,
+ * and {@link #snapshot()} periodically writes all bookings as JSON lines (optionally gzipped) and
+ * clears the deltas. Both directions use Jackson's streaming API, so neither writing nor
+ * {@link #load()} ever holds more than one record in a tree. Dropping old days costs a single
+ * delta record however many bookings it removes.
+ * <p>
+ * After {@link #deferJournal()} changes are no longer written as they are made; whoever deferred
+ * the journal hands them to {@link #journal(Collection, boolean)} and
+ * {@link #journalDroppedBefore(LocalDate)} instead, typically from another thread. Changes not yet
+ * journaled when the process dies are lost. If the deferred journal stops, {@link #resumeJournal()}
+ * saves what it never received and goes back to writing changes as they are made.
+ */
+public class DurableBookingRepository implements BookingRepository, AutoCloseable {
+    private static final String SNAPSHOT_FILE = "bookings.snapshot.jsonl";
+    private static final String DELTA_FILE = "bookings.delta.jsonl";
+    private static final String PREVIOUS_DELTA_SUFFIX = ".previous";
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final BookingRepository bookings;
+    private final Path snapshotPath;
+    private final Path deltaPath;
+    private final Path previousDeltaPath;
+    private final boolean gzipSnapshots;
+    private final LongFunction<Workspace> workspaceResolver;
+    private final Function<String, Workspace> legacyWorkspaceResolver;
+    private final Function<String, Customer> customerResolver;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    // Writers hold the read lock so they run concurrently; a snapshot takes the write lock just long
+    // enough to rotate the deltas and capture the bookings, so that every change lands either in
+    // the snapshot or in the following deltas
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private final Object snapshotWriter = new Object();
+    private final Object deltaLock = new Object();
+    private FileOutputStream deltaFile;
+    private OutputStream deltaStream;
+    private JsonGenerator deltaGenerator;
+    private ScheduledExecutorService snapshotScheduler;
+    private volatile boolean journalDeferred;
+
+    /**
+     * @param workspaceResolver finds a workspace by id, or returns {@code null} if it is gone
+     * @param legacyWorkspaceResolver finds a workspace by name, for records written before they
+     *                                carried the workspace id
+     */
+    public DurableBookingRepository(Path directory, BookingRepository bookings, boolean gzipSnapshots,
+                                    LongFunction<Workspace> workspaceResolver,
+                                    Function<String, Workspace> legacyWorkspaceResolver,
+                                    Function<String, Customer> customerResolver) throws IOException {
+        Files.createDirectories(directory);
+        this.bookings = bookings;
+        this.snapshotPath = directory.resolve(gzipSnapshots ? SNAPSHOT_FILE + GZIP_SUFFIX : SNAPSHOT_FILE);
+        this.deltaPath = directory.resolve(DELTA_FILE);
+        this.previousDeltaPath = directory.resolve(DELTA_FILE + PREVIOUS_DELTA_SUFFIX);
+        this.gzipSnapshots = gzipSnapshots;
+        this.workspaceResolver = workspaceResolver;
+        this.legacyWorkspaceResolver = legacyWorkspaceResolver;
+        this.customerResolver = customerResolver;
+    }
+
+    /**
+     * Restores the latest snapshot and replays the deltas written after it. Records resolve their
+     * workspace by id, or by name if they were written before ids were recorded. Bookings whose
+     * workspace no longer exists are dropped; bookings written before they carried a date are
+     * restored on the current day. A torn record at the end of the deltas is reported and cut off.
+     *
+     * @return number of bookings restored
+     */
+    public int load() throws IOException {
+        snapshotLock.writeLock().lock();
+        try {
+            if (Files.exists(snapshotPath)) {
+                try (InputStream in = openSnapshot(); JsonParser parser = jsonFactory.createParser(in)) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        restore(readRecord(parser));
+                    }
+                }
+            }
+            // A snapshot that did not finish leaves the deltas it rotated out behind the current ones
+            if (Files.exists(previousDeltaPath)) {
+                replayDeltas(previousDeltaPath);
+            }
+            if (Files.exists(deltaPath)) {
+                replayDeltas(deltaPath);
+            }
+            return bookings.getAllBookings().size();
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes every booking to a new snapshot, atomically replaces the old one and drops the deltas
+     * it covers. Writers wait only while the deltas are rotated and the bookings captured, not while
+     * the snapshot is written and synced.
+     */
+    public void snapshot() throws IOException {
+        synchronized (snapshotWriter) {
+            List<Booking> captured;
+            snapshotLock.writeLock().lock();
+            try {
+                synchronized (deltaLock) {
+                    rotateDelta();
+                }
+                // In id order, so load() appends to the id-ordered indexes
+                captured = bookings.streamBookings().toList();
+            } finally {
+                snapshotLock.writeLock().unlock();
+            }
+            writeSnapshot(captured);
+            Files.deleteIfExists(previousDeltaPath);
+        }
+    }
+
+    private void writeSnapshot(List<Booking> captured) throws IOException {
+        Path temporary = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile())) {
+            OutputStream out = new BufferedOutputStream(file, BUFFER_SIZE);
+            if (gzipSnapshots) {
+                out = new GZIPOutputStream(out, BUFFER_SIZE);
+            }
+            // Closing the generator closes the whole stream chain, so sync before the descriptor goes
+            JsonGenerator generator = newGenerator(out);
+            for (Booking booking : captured) {
+                writeRecord(generator, booking, false);
+            }
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.close();
+            if (out instanceof GZIPOutputStream gzip) {
+                gzip.finish();
+            }
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temporary, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public synchronized void startPeriodicSnapshots(long period, TimeUnit unit) {
+        if (snapshotScheduler != null) {
+            return;
+        }
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (IOException e) {
+                System.out.println("Booking snapshot failed: " + e.getMessage());
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Stops writing changes to the delta file as they are made; see {@link #journal(Collection, boolean)}.
+     */
+    public void deferJournal() {
+        journalDeferred = true;
+    }
+
+    /**
+     * Goes back to writing every change as it is made, for when whoever deferred the journal can no
+     * longer take changes. Writes a snapshot so that changes handed over but never written are
+     * saved; hand-overs that arrive later are ignored, since the snapshot already holds them.
+     */
+    public void resumeJournal() throws IOException {
+        // Writers that saw the journal deferred finish before the snapshot takes the write lock, so
+        // each change is either in the snapshot or written as it is made
+        journalDeferred = false;
+        snapshot();
+    }
+
+    /**
+     * Appends changes already applied to the repository. Reservations of bookings that are gone
+     * again by the time they are journaled are skipped, so a reservation journaled after its own
+     * cancellation is not brought back on the next load.
+     */
+    public void journal(Collection<Booking> batch, boolean removed) {
+        snapshotLock.readLock().lock();
+        try {
+            if (!journalDeferred) {
+                return;
+            }
+            if (removed) {
+                appendDeltas(batch, true);
+                return;
+            }
+            List<Booking> present = new ArrayList<>(batch.size());
+            for (Booking booking : batch) {
+                if (bookings.findById(booking.getId()).isPresent()) {
+                    present.add(booking);
+                }
+            }
+            appendDeltas(present, false);
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    public void journalDroppedBefore(LocalDate date) {
+        snapshotLock.readLock().lock();
+        try {
+            if (journalDeferred) {
+                appendDroppedBefore(date);
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void addBooking(Booking booking) {
+        snapshotLock.readLock().lock();
+        try {
+            bookings.addBooking(booking);
+            if (!journalDeferred) {
+                appendDeltas(List.of(booking), false);
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void addBookings(Collection<Booking> batch) {
+        snapshotLock.readLock().lock();
+        try {
+            for (Booking booking : batch) {
+                bookings.addBooking(booking);
+            }
+            if (!journalDeferred) {
+                appendDeltas(batch, false);
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean removeBooking(Booking booking) {
+        snapshotLock.readLock().lock();
+        try {
+            if (!bookings.removeBooking(booking)) {
+                return false;
+            }
+            if (!journalDeferred) {
+                appendDeltas(List.of(booking), true);
+            }
+            return true;
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeBookings(Collection<Booking> batch) {
+        snapshotLock.readLock().lock();
+        try {
+            List<Booking> removed = new ArrayList<>(batch.size());
+            for (Booking booking : batch) {
+                if (bookings.removeBooking(booking)) {
+                    removed.add(booking);
+                }
+            }
+            if (!journalDeferred) {
+                appendDeltas(removed, true);
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<Booking> removeBookingsBefore(LocalDate date) {
+        snapshotLock.readLock().lock();
+        try {
+            Collection<Booking> removed = bookings.removeBookingsBefore(date);
+            if (!removed.isEmpty() && !journalDeferred) {
+                appendDroppedBefore(date);
+            }
+            return removed;
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<Booking> getAllBookings() {
+        return bookings.getAllBookings();
+    }
+
+    @Override
+    public long generateId() {
+        return bookings.generateId();
+    }
+
+    @Override
+    public Optional<Booking> findById(long id) {
+        return bookings.findById(id);
+    }
+
+    @Override
+    public Collection<Booking> findByCustomer(String userName) {
+        return bookings.findByCustomer(userName);
+    }
+
+    @Override
+    public Collection<Booking> findByWorkspace(Workspace workspace) {
+        return bookings.findByWorkspace(workspace);
+    }
+
+    @Override
+    public Collection<Booking> findByDate(LocalDate date) {
+        return bookings.findByDate(date);
+    }
+
+    @Override
+    public Collection<Booking> findByCustomer(String userName, LocalDate date) {
+        return bookings.findByCustomer(userName, date);
+    }
+
+    @Override
+    public Page<Booking> findPage(long afterId, int limit) {
+        return bookings.findPage(afterId, limit);
+    }
+
+    @Override
+    public Page<Booking> findPageByCustomer(String userName, long afterId, int limit) {
+        return bookings.findPageByCustomer(userName, afterId, limit);
+    }
+
+    @Override
+    public Stream<Booking> streamBookings() {
+        return bookings.streamBookings();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (snapshotScheduler != null) {
+                snapshotScheduler.shutdownNow();
+                snapshotScheduler = null;
+            }
+        }
+        synchronized (deltaLock) {
+            closeDelta();
+        }
+    }
+
+    // One flush per call, however many bookings it carries
+    private void appendDeltas(Collection<Booking> batch, boolean removed) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        synchronized (deltaLock) {
+            long length = -1;
+            try {
+                openDelta();
+                length = deltaFile.getChannel().position();
+                for (Booking booking : batch) {
+                    writeRecord(deltaGenerator, booking, removed);
+                }
+                deltaGenerator.flush();
+            } catch (IOException e) {
+                discardDelta(length, e);
+                throw new UncheckedIOException("Error saving bookings", e);
+            } catch (RuntimeException e) {
+                discardDelta(length, e);
+                throw e;
+            }
+        }
+    }
+
+    private void appendDroppedBefore(LocalDate date) {
+        synchronized (deltaLock) {
+            long length = -1;
+            try {
+                openDelta();
+                length = deltaFile.getChannel().position();
+                deltaGenerator.writeStartObject();
+                deltaGenerator.writeStringField("droppedBefore", date.toString());
+                deltaGenerator.writeEndObject();
+                deltaGenerator.writeRaw('\n');
+                deltaGenerator.flush();
+            } catch (IOException e) {
+                discardDelta(length, e);
+                throw new UncheckedIOException("Error saving bookings", e);
+            }
+        }
+    }
+
+    // Moves the current deltas behind any a failed snapshot left, so that they are kept until a
+    // snapshot holding them is in place
+    private void rotateDelta() throws IOException {
+        closeDelta();
+        if (!Files.exists(deltaPath)) {
+            return;
+        }
+        if (!Files.exists(previousDeltaPath)) {
+            Files.move(deltaPath, previousDeltaPath, StandardCopyOption.ATOMIC_MOVE);
+            return;
+        }
+        try (FileChannel source = FileChannel.open(deltaPath, StandardOpenOption.READ);
+             FileChannel target = FileChannel.open(previousDeltaPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            long size = source.size();
+            for (long copied = 0; copied < size; ) {
+                copied += source.transferTo(copied, size - copied, target);
+            }
+            target.force(true);
+        }
+        Files.delete(deltaPath);
+    }
+
+    private void openDelta() throws IOException {
+        if (deltaGenerator == null) {
+            deltaFile = new FileOutputStream(deltaPath.toFile(), true);
+            deltaStream = new BufferedOutputStream(deltaFile, BUFFER_SIZE);
+            deltaGenerator = newGenerator(deltaStream);
+        }
+    }
+
+    // Drops what a failed append left buffered or half-written, so that a retry starts on a clean
+    // record boundary instead of behind a torn record
+    private void discardDelta(long length, Exception failure) {
+        try {
+            if (deltaFile != null) {
+                deltaFile.close();
+            }
+            if (length >= 0) {
+                try (FileChannel channel = FileChannel.open(deltaPath, StandardOpenOption.WRITE)) {
+                    channel.truncate(length);
+                }
+            }
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        } finally {
+            deltaGenerator = null;
+            deltaStream = null;
+            deltaFile = null;
+        }
+    }
+
+    private void closeDelta() throws IOException {
+        if (deltaGenerator != null) {
+            try {
+                deltaGenerator.close();
+            } finally {
+                deltaGenerator = null;
+                deltaStream = null;
+                deltaFile = null;
+            }
+        }
+    }
+
+    // A crash can leave a half-written last record; everything before it is intact. The tail is cut
+    // off so that later deltas are not appended behind it, where the next load could not reach them.
+    private void replayDeltas(Path path) throws IOException {
+        long intact = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE);
+             JsonParser parser = jsonFactory.createParser(in)) {
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                Record record = readRecord(parser);
+                intact = parser.getCurrentLocation().getByteOffset();
+                if (record.droppedBefore != null) {
+                    forgetBefore(record.droppedBefore);
+                } else if (record.removed) {
+                    bookings.findById(record.id).ifPresent(this::forget);
+                } else {
+                    restore(record);
+                }
+            }
+            return;
+        } catch (IOException e) {
+            long size = Files.size(path);
+            System.out.println("Dropping " + (size - intact) + " bytes of a torn booking delta after byte " + intact);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(intact);
+            if (intact > 0) {
+                channel.write(ByteBuffer.wrap(new byte[] {'\n'}), intact);
+            }
+            channel.force(true);
+        }
+    }
+
+    private void restore(Record record) {
+        Workspace workspace = record.workspaceId != null
+                ? workspaceResolver.apply(record.workspaceId)
+                : legacyWorkspaceResolver.apply(record.workspace);
+        if (workspace == null) {
+            return;
+        }
+        LocalDate date = record.date != null ? record.date : LocalDate.now();
+        Booking booking = new Booking(record.id, customerResolver.apply(record.customer), workspace, date,
+                record.startTime, record.endTime);
+        if (bookings.findById(record.id).isPresent() || !workspace.addBooking(booking)) {
+            return;
+        }
+        bookings.addBooking(booking);
+    }
+
+    private void forget(Booking booking) {
+        bookings.removeBooking(booking);
+        booking.getWorkspace().removeBooking(booking);
+    }
+
+    private void forgetBefore(LocalDate date) {
+        for (Booking booking : bookings.removeBookingsBefore(date)) {
+            booking.getWorkspace().removeBooking(booking);
+        }
+    }
+
+    private InputStream openSnapshot() throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(snapshotPath), BUFFER_SIZE);
+        return gzipSnapshots ? new GZIPInputStream(in, BUFFER_SIZE) : in;
+    }
+
+    private JsonGenerator newGenerator(OutputStream out) throws IOException {
+        JsonGenerator generator = jsonFactory.createGenerator(out);
+        generator.setRootValueSeparator(new SerializedString(""));
+        return generator;
+    }
+
+    private static void writeRecord(JsonGenerator generator, Booking booking, boolean removed) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", booking.getId());
+        if (removed) {
+            generator.writeBooleanField("removed", true);
+        } else {
+            generator.writeStringField("customer", booking.getCustomer().getUserName());
+            generator.writeNumberField("workspaceId", booking.getWorkspace().getId());
+            generator.writeStringField("date", booking.getDate().toString());
+            generator.writeStringField("start", booking.getStartTime().toString());
+            generator.writeStringField("end", booking.getEndTime().toString());
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static Record readRecord(JsonParser parser) throws IOException {
+        Record record = new Record();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> record.id = parser.getLongValue();
+                case "removed" -> record.removed = parser.getBooleanValue();
+                case "customer" -> record.customer = parser.getText();
+                case "workspaceId" -> record.workspaceId = parser.getLongValue();
+                case "workspace" -> record.workspace = parser.getText();
+                case "date" -> record.date = LocalDate.parse(parser.getText());
+                case "droppedBefore" -> record.droppedBefore = LocalDate.parse(parser.getText());
+                case "start" -> record.startTime = LocalTime.parse(parser.getText());
+                case "end" -> record.endTime = LocalTime.parse(parser.getText());
+                default -> parser.skipChildren();
+            }
+        }
+        return record;
+    }
+
+    private static class Record {
+        private long id;
+        private boolean removed;
+        private String customer;
+        private Long workspaceId;
+        private String workspace;
+        private LocalDate date;
+        private LocalDate droppedBefore;
+        private LocalTime startTime;
+        private LocalTime endTime;
+    }
+}
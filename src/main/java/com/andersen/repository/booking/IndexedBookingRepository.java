@@ -0,0 +1,205 @@
+package com.andersen.repository.booking;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.repository.Page;
+import com.andersen.repository.id.IdGenerator;
+import com.andersen.repository.id.SnowflakeIdGenerator;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Booking repository with a primary hash index on booking id and secondary hash indexes on customer
+ * user name and workspace, so lookups and removals are O(1) regardless of how many bookings exist.
+ * All finders return live read-only views rather than copies. The full listing and the per-customer
+ * index are additionally kept in id order, so a page is a skip-list seek plus {@code limit} steps.
+ * <p>
+ * Bookings are also partitioned by date. Day queries read one partition, and dropping old days
+ * detaches whole partitions before unlinking their bookings from the other indexes.
+ */
+public class IndexedBookingRepository implements BookingRepository {
+    private final Map<Long, Booking> bookingsById = new ConcurrentHashMap<>();
+    private final NavigableMap<Long, Booking> bookingsInIdOrder = new ConcurrentSkipListMap<>();
+    private final Map<String, NavigableMap<Long, Booking>> bookingsByCustomer = new ConcurrentHashMap<>();
+    private final Map<Workspace, Set<Booking>> bookingsByWorkspace = new ConcurrentHashMap<>();
+    private final NavigableMap<LocalDate, DayPartition> partitions = new ConcurrentSkipListMap<>();
+    private final IdGenerator idGenerator;
+
+    public IndexedBookingRepository() {
+        this(new SnowflakeIdGenerator(0));
+    }
+
+    public IndexedBookingRepository(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
+    /**
+     * Only the thread whose put wins the primary index updates the others, and it does so under the
+     * primary index's lock for that id, so a concurrent remove of the same booking sees either none
+     * of the indexes updated or all of them.
+     */
+    @Override
+    public void addBooking(Booking booking) {
+        boolean[] added = new boolean[1];
+        bookingsById.computeIfAbsent(booking.getId(), id -> {
+            index(booking);
+            added[0] = true;
+            return booking;
+        });
+        if (!added[0]) {
+            throw new IllegalArgumentException("Booking with id " + booking.getId() + " already exists.");
+        }
+    }
+
+    @Override
+    public boolean removeBooking(Booking booking) {
+        return unlink(booking, true);
+    }
+
+    /**
+     * Empty partitions are kept until their day is dropped, so views handed out stay live.
+     */
+    @Override
+    public Collection<Booking> findByDate(LocalDate date) {
+        DayPartition partition = partitions.get(date);
+        return partition == null ? Collections.emptyList() : Collections.unmodifiableCollection(partition.bookings.values());
+    }
+
+    @Override
+    public Collection<Booking> findByCustomer(String userName, LocalDate date) {
+        DayPartition partition = partitions.get(date);
+        if (partition == null) {
+            return Collections.emptyList();
+        }
+        Map<Long, Booking> bookings = partition.bookingsByCustomer.get(userName);
+        return bookings == null ? Collections.emptyList() : Collections.unmodifiableCollection(bookings.values());
+    }
+
+    @Override
+    public Collection<Booking> removeBookingsBefore(LocalDate date) {
+        List<Booking> removed = new ArrayList<>();
+        NavigableMap<LocalDate, DayPartition> expired = partitions.headMap(date, false);
+        for (LocalDate day : List.copyOf(expired.keySet())) {
+            DayPartition partition = partitions.remove(day);
+            if (partition == null) {
+                continue; // Dropped concurrently
+            }
+            for (Booking booking : partition.bookings.values()) {
+                if (unlink(booking, false)) {
+                    removed.add(booking);
+                }
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public Collection<Booking> getAllBookings() {
+        return Collections.unmodifiableCollection(bookingsById.values());
+    }
+
+    @Override
+    public long generateId() {
+        return idGenerator.nextId();
+    }
+
+    @Override
+    public Optional<Booking> findById(long id) {
+        return Optional.ofNullable(bookingsById.get(id));
+    }
+
+    @Override
+    public Collection<Booking> findByCustomer(String userName) {
+        return Collections.unmodifiableCollection(customerIndex(userName).values());
+    }
+
+    @Override
+    public Collection<Booking> findByWorkspace(Workspace workspace) {
+        return Collections.unmodifiableSet(workspaceIndex(workspace));
+    }
+
+    @Override
+    public Page<Booking> findPage(long afterId, int limit) {
+        return Page.of(bookingsInIdOrder.tailMap(afterId, false).values().iterator(), limit, afterId, Booking::getId);
+    }
+
+    @Override
+    public Page<Booking> findPageByCustomer(String userName, long afterId, int limit) {
+        NavigableMap<Long, Booking> bookings = bookingsByCustomer.get(userName);
+        if (bookings == null) {
+            return new Page<>(Collections.emptyList(), afterId, false);
+        }
+        return Page.of(bookings.tailMap(afterId, false).values().iterator(), limit, afterId, Booking::getId);
+    }
+
+    @Override
+    public Stream<Booking> streamBookings() {
+        return bookingsInIdOrder.values().stream();
+    }
+
+    private void index(Booking booking) {
+        bookingsInIdOrder.put(booking.getId(), booking);
+        customerIndex(booking.getCustomer().getUserName()).put(booking.getId(), booking);
+        workspaceIndex(booking.getWorkspace()).add(booking);
+        partitions.computeIfAbsent(booking.getDate(), date -> new DayPartition()).add(booking);
+    }
+
+    // Takes the booking out of the other indexes if this thread wins the primary remove; a dropped
+    // day's partition is already detached, so it is left alone
+    private boolean unlink(Booking booking, boolean fromPartition) {
+        boolean[] removed = new boolean[1];
+        bookingsById.computeIfPresent(booking.getId(), (id, current) -> {
+            if (current != booking) {
+                return current;
+            }
+            bookingsInIdOrder.remove(id, booking);
+            customerIndex(booking.getCustomer().getUserName()).remove(id, booking);
+            workspaceIndex(booking.getWorkspace()).remove(booking);
+            DayPartition partition = fromPartition ? partitions.get(booking.getDate()) : null;
+            if (partition != null) {
+                partition.remove(booking);
+            }
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    // Indexes are never dropped once created, so views handed out stay live
+    private NavigableMap<Long, Booking> customerIndex(String userName) {
+        return bookingsByCustomer.computeIfAbsent(userName, key -> new ConcurrentSkipListMap<>());
+    }
+
+    private Set<Booking> workspaceIndex(Workspace workspace) {
+        return bookingsByWorkspace.computeIfAbsent(workspace, key -> ConcurrentHashMap.newKeySet());
+    }
+
+    private static final class DayPartition {
+        final Map<Long, Booking> bookings = new ConcurrentHashMap<>();
+        final Map<String, Map<Long, Booking>> bookingsByCustomer = new ConcurrentHashMap<>();
+
+        void add(Booking booking) {
+            bookings.put(booking.getId(), booking);
+            bookingsByCustomer.computeIfAbsent(booking.getCustomer().getUserName(), key -> new ConcurrentHashMap<>())
+                    .put(booking.getId(), booking);
+        }
+
+        void remove(Booking booking) {
+            bookings.remove(booking.getId(), booking);
+            Map<Long, Booking> customerBookings = bookingsByCustomer.get(booking.getCustomer().getUserName());
+            if (customerBookings != null) {
+                customerBookings.remove(booking.getId(), booking);
+            }
+        }
+    }
+}
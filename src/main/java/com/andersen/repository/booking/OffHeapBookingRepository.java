@@ -0,0 +1,552 @@
+package com.andersen.repository.booking;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.repository.Page;
+import com.andersen.repository.id.IdGenerator;
+import com.andersen.repository.id.SnowflakeIdGenerator;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Booking repository that packs each booking into a fixed-width 24-byte record in direct
+ * {@link ByteBuffer} slabs: the id, workspace and customer ordinals, the epoch day and the start and
+ * end minute. The heap holds only the workspace and customer tables and the indexes, which are
+ * arrays of record slots kept in id order, so a booking costs 4 bytes per index instead of an
+ * object graph and several map entries.
+ * <p>
+ * Finders decode the records they return into plain {@link Booking} copies under the read lock, so
+ * a result stays readable whatever happens to the store afterwards. Iteration decodes one batch at a
+ * time and skips bookings removed between batches.
+ * <p>
+ * Booking times must be whole minutes.
+ */
+public class OffHeapBookingRepository implements BookingRepository {
+    static final int RECORD_BYTES = 24;
+    private static final int ID = 0;
+    private static final int WORKSPACE = 8;
+    private static final int CUSTOMER = 12;
+    private static final int DAY = 16;
+    private static final int START = 20;
+    private static final int END = 22;
+
+    private static final int SLAB_SHIFT = 16;
+    private static final int SLAB_RECORDS = 1 << SLAB_SHIFT;
+    // Id of a free slot; no booking has it, since it is also the first-page cursor
+    private static final long FREE = Page.FIRST;
+    private static final int ITERATION_BATCH = 256;
+    private static final LocalTime[] TIMES = new LocalTime[24 * 60];
+
+    static {
+        for (int minute = 0; minute < TIMES.length; minute++) {
+            TIMES[minute] = LocalTime.of(minute / 60, minute % 60);
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IdGenerator idGenerator;
+
+    private ByteBuffer[] slabs = new ByteBuffer[0];
+    private Workspace[] workspaces = new Workspace[16];
+    private Customer[] customers = new Customer[16];
+
+    private final Map<Workspace, Integer> workspaceOrdinals = new HashMap<>();
+    private final Map<String, Integer> customerOrdinals = new HashMap<>();
+    private final List<SlotList> slotsByWorkspace = new ArrayList<>();
+    private final List<SlotList> slotsByCustomer = new ArrayList<>();
+    private final NavigableMap<Integer, SlotList> slotsByDay = new TreeMap<>();
+    private final SlotList allSlots = new SlotList();
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int slotCount;
+
+    public OffHeapBookingRepository() {
+        this(new SnowflakeIdGenerator(0));
+    }
+
+    public OffHeapBookingRepository(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
+    @Override
+    public void addBooking(Booking booking) {
+        lock.writeLock().lock();
+        try {
+            insert(booking);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void addBookings(Collection<Booking> bookings) {
+        lock.writeLock().lock();
+        try {
+            for (Booking booking : bookings) {
+                insert(booking);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean removeBooking(Booking booking) {
+        lock.writeLock().lock();
+        try {
+            int slot = find(booking.getId());
+            if (slot < 0) {
+                return false;
+            }
+            delete(slot);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeBookings(Collection<Booking> bookings) {
+        lock.writeLock().lock();
+        try {
+            for (Booking booking : bookings) {
+                int slot = find(booking.getId());
+                if (slot >= 0) {
+                    delete(slot);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Detaches whole days at once and unlinks their slots from the other indexes in one pass each.
+     */
+    @Override
+    public Collection<Booking> removeBookingsBefore(LocalDate date) {
+        lock.writeLock().lock();
+        try {
+            NavigableMap<Integer, SlotList> expired = slotsByDay.headMap((int) date.toEpochDay(), false);
+            if (expired.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<Booking> removed = new ArrayList<>();
+            BitSet slots = new BitSet(slotCount);
+            BitSet touchedWorkspaces = new BitSet();
+            BitSet touchedCustomers = new BitSet();
+            for (SlotList day : expired.values()) {
+                for (int i = 0; i < day.size(); i++) {
+                    int slot = day.get(i);
+                    removed.add(copyOf(slot));
+                    slots.set(slot);
+                    touchedWorkspaces.set(intAt(slot, WORKSPACE));
+                    touchedCustomers.set(intAt(slot, CUSTOMER));
+                }
+            }
+            expired.clear();
+            allSlots.removeIf(slots::get);
+            touchedWorkspaces.stream().forEach(ordinal -> slotsByWorkspace.get(ordinal).removeIf(slots::get));
+            touchedCustomers.stream().forEach(ordinal -> slotsByCustomer.get(ordinal).removeIf(slots::get));
+            slots.stream().forEach(this::free);
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return live read-only view of every booking, iterated in id order a batch at a time
+     */
+    @Override
+    public Collection<Booking> getAllBookings() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Booking> iterator() {
+                return new BatchIterator();
+            }
+
+            @Override
+            public int size() {
+                lock.readLock().lock();
+                try {
+                    return allSlots.size();
+                } finally {
+                    lock.readLock().unlock();
+                }
+            }
+        };
+    }
+
+    @Override
+    public long generateId() {
+        return idGenerator.nextId();
+    }
+
+    @Override
+    public Optional<Booking> findById(long id) {
+        lock.readLock().lock();
+        try {
+            int slot = find(id);
+            return slot < 0 ? Optional.empty() : Optional.of(copyOf(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<Booking> findByCustomer(String userName) {
+        lock.readLock().lock();
+        try {
+            Integer ordinal = customerOrdinals.get(userName);
+            return ordinal == null ? Collections.emptyList() : copies(slotsByCustomer.get(ordinal), -1, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<Booking> findByWorkspace(Workspace workspace) {
+        lock.readLock().lock();
+        try {
+            Integer ordinal = workspaceOrdinals.get(workspace);
+            return ordinal == null ? Collections.emptyList() : copies(slotsByWorkspace.get(ordinal), -1, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<Booking> findByDate(LocalDate date) {
+        lock.readLock().lock();
+        try {
+            SlotList day = slotsByDay.get((int) date.toEpochDay());
+            return day == null ? Collections.emptyList() : copies(day, -1, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<Booking> findByCustomer(String userName, LocalDate date) {
+        lock.readLock().lock();
+        try {
+            Integer ordinal = customerOrdinals.get(userName);
+            int epochDay = (int) date.toEpochDay();
+            SlotList day = slotsByDay.get(epochDay);
+            if (ordinal == null || day == null) {
+                return Collections.emptyList();
+            }
+            // Scan whichever list is shorter and filter on the other field
+            SlotList customer = slotsByCustomer.get(ordinal);
+            return customer.size() < day.size() ? copies(customer, DAY, epochDay) : copies(day, CUSTOMER, ordinal);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Page<Booking> findPage(long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            return page(allSlots, afterId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Page<Booking> findPageByCustomer(String userName, long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            Integer ordinal = customerOrdinals.get(userName);
+            return ordinal == null
+                    ? new Page<>(Collections.emptyList(), afterId, false)
+                    : page(slotsByCustomer.get(ordinal), afterId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Stream<Booking> streamBookings() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new BatchIterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT), false);
+    }
+
+    /**
+     * Bytes of direct memory reserved by the slabs.
+     */
+    public long getOffHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) slabs.length * SLAB_RECORDS * RECORD_BYTES;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(Booking booking) {
+        long id = booking.getId();
+        if (find(id) >= 0) {
+            throw new IllegalArgumentException("Booking with id " + id + " already exists.");
+        }
+        int workspace = workspaceOrdinal(booking.getWorkspace());
+        int customer = customerOrdinal(booking.getCustomer());
+        int epochDay = (int) booking.getDate().toEpochDay();
+        short start = minuteOf(booking.getStartTime());
+        short end = minuteOf(booking.getEndTime());
+
+        int slot = allocate();
+        ByteBuffer slab = slabs[slot >>> SLAB_SHIFT];
+        int offset = offset(slot);
+        slab.putLong(offset + ID, id);
+        slab.putInt(offset + WORKSPACE, workspace);
+        slab.putInt(offset + CUSTOMER, customer);
+        slab.putInt(offset + DAY, epochDay);
+        slab.putShort(offset + START, start);
+        slab.putShort(offset + END, end);
+
+        allSlots.add(slot);
+        slotsByWorkspace.get(workspace).add(slot);
+        slotsByCustomer.get(customer).add(slot);
+        slotsByDay.computeIfAbsent(epochDay, day -> new SlotList()).add(slot);
+    }
+
+    private void delete(int slot) {
+        allSlots.remove(slot);
+        slotsByWorkspace.get(intAt(slot, WORKSPACE)).remove(slot);
+        slotsByCustomer.get(intAt(slot, CUSTOMER)).remove(slot);
+        int epochDay = intAt(slot, DAY);
+        SlotList day = slotsByDay.get(epochDay);
+        day.remove(slot);
+        if (day.size() == 0) {
+            slotsByDay.remove(epochDay);
+        }
+        free(slot);
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        int slot = slotCount++;
+        if ((slot >>> SLAB_SHIFT) == slabs.length) {
+            ByteBuffer[] grown = Arrays.copyOf(slabs, slabs.length + 1);
+            grown[slabs.length] = ByteBuffer.allocateDirect(SLAB_RECORDS * RECORD_BYTES).order(ByteOrder.nativeOrder());
+            slabs = grown;
+        }
+        return slot;
+    }
+
+    private void free(int slot) {
+        slabs[slot >>> SLAB_SHIFT].putLong(offset(slot) + ID, FREE);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private int find(long id) {
+        int index = allSlots.indexAfter(id) - 1;
+        if (index < 0) {
+            return -1;
+        }
+        int slot = allSlots.get(index);
+        return idAt(slot) == id ? slot : -1;
+    }
+
+    private int workspaceOrdinal(Workspace workspace) {
+        Integer ordinal = workspaceOrdinals.get(workspace);
+        if (ordinal == null) {
+            ordinal = workspaceOrdinals.size();
+            workspaceOrdinals.put(workspace, ordinal);
+            slotsByWorkspace.add(new SlotList());
+            Workspace[] table = workspaces;
+            if (ordinal == table.length) {
+                table = Arrays.copyOf(table, table.length * 2);
+            }
+            table[ordinal] = workspace;
+            workspaces = table;
+        }
+        return ordinal;
+    }
+
+    private int customerOrdinal(Customer customer) {
+        Integer ordinal = customerOrdinals.get(customer.getUserName());
+        if (ordinal == null) {
+            ordinal = customerOrdinals.size();
+            customerOrdinals.put(customer.getUserName(), ordinal);
+            slotsByCustomer.add(new SlotList());
+            Customer[] table = customers;
+            if (ordinal == table.length) {
+                table = Arrays.copyOf(table, table.length * 2);
+            }
+            table[ordinal] = customer;
+            customers = table;
+        }
+        return ordinal;
+    }
+
+    private Page<Booking> page(SlotList slots, long afterId, int limit) {
+        int from = slots.indexAfter(afterId);
+        int to = (int) Math.min(slots.size(), (long) from + limit);
+        List<Booking> items = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            int slot = slots.get(i);
+            items.add(copyOf(slot));
+        }
+        long nextCursor = items.isEmpty() ? afterId : items.get(items.size() - 1).getId();
+        return new Page<>(items, nextCursor, to < slots.size());
+    }
+
+    // Copies of the slots whose int field equals value; a negative field takes every slot
+    private List<Booking> copies(SlotList slots, int field, int value) {
+        List<Booking> copies = new ArrayList<>(field < 0 ? slots.size() : 16);
+        for (int i = 0; i < slots.size(); i++) {
+            int slot = slots.get(i);
+            if (field < 0 || intAt(slot, field) == value) {
+                copies.add(copyOf(slot));
+            }
+        }
+        return Collections.unmodifiableList(copies);
+    }
+
+    private Booking copyOf(int slot) {
+        ByteBuffer slab = slabs[slot >>> SLAB_SHIFT];
+        int offset = offset(slot);
+        return new Booking(idAt(slot), customers[slab.getInt(offset + CUSTOMER)], workspaces[slab.getInt(offset + WORKSPACE)],
+                LocalDate.ofEpochDay(slab.getInt(offset + DAY)), TIMES[slab.getShort(offset + START)],
+                TIMES[slab.getShort(offset + END)]);
+    }
+
+    private long idAt(int slot) {
+        return slabs[slot >>> SLAB_SHIFT].getLong(offset(slot) + ID);
+    }
+
+    private int intAt(int slot, int field) {
+        return slabs[slot >>> SLAB_SHIFT].getInt(offset(slot) + field);
+    }
+
+    private static int offset(int slot) {
+        return (slot & (SLAB_RECORDS - 1)) * RECORD_BYTES;
+    }
+
+    private static short minuteOf(LocalTime time) {
+        if (time.getSecond() != 0 || time.getNano() != 0) {
+            throw new IllegalArgumentException("Booking times must be whole minutes: " + time);
+        }
+        return (short) (time.getHour() * 60 + time.getMinute());
+    }
+
+    /**
+     * Record slots in the id order of their records, so lookups and pages are binary searches.
+     * Ids are generated in increasing order, so adds almost always append and removals of recent
+     * bookings shift only the tail.
+     */
+    private final class SlotList {
+        private int[] slots = new int[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        int get(int index) {
+            return slots[index];
+        }
+
+        void add(int slot) {
+            int index = size == 0 || idAt(slots[size - 1]) < idAt(slot) ? size : indexAfter(idAt(slot));
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size + (size >> 1) + 1);
+            }
+            System.arraycopy(slots, index, slots, index + 1, size - index);
+            slots[index] = slot;
+            size++;
+        }
+
+        void remove(int slot) {
+            int index = indexAfter(idAt(slot)) - 1;
+            if (index >= 0 && slots[index] == slot) {
+                System.arraycopy(slots, index + 1, slots, index, size - index - 1);
+                size--;
+            }
+        }
+
+        void removeIf(IntPredicate filter) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (!filter.test(slots[i])) {
+                    slots[kept++] = slots[i];
+                }
+            }
+            size = kept;
+        }
+
+        // Index of the first slot whose id is greater than afterId
+        int indexAfter(long afterId) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (idAt(slots[mid]) <= afterId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    // Weakly consistent: each batch is a fresh page after the last id seen
+    private final class BatchIterator implements Iterator<Booking> {
+        private Page<Booking> page = findPage(Page.FIRST, ITERATION_BATCH);
+        private Iterator<Booking> items = page.getItems().iterator();
+
+        @Override
+        public boolean hasNext() {
+            while (!items.hasNext()) {
+                if (!page.hasNext()) {
+                    return false;
+                }
+                page = findPage(page.getNextCursor(), ITERATION_BATCH);
+                items = page.getItems().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public Booking next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return items.next();
+        }
+    }
+}
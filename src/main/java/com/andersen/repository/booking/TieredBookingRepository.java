@@ -0,0 +1,203 @@
+package com.andersen.repository.booking;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.repository.Page;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Two-tier booking store. Current and future bookings live in the hot repository; dropping old
+ * days through {@link #removeBookingsBefore(LocalDate)} moves them into the {@link BookingArchive}
+ * instead of discarding them, which takes them off the heap.
+ * <p>
+ * Lookups by id, the id-ordered listings, the customer and date queries and
+ * {@link #streamBookings()} cover both tiers; archived bookings are read back from disk on demand.
+ * {@link #getAllBookings()} and {@link #findByWorkspace(Workspace)} return live views of the hot
+ * tier only. Archived bookings can no longer be cancelled.
+ */
+public class TieredBookingRepository implements BookingRepository, AutoCloseable {
+    private final BookingRepository hot;
+    private final BookingArchive archive;
+
+    /**
+     * Also settles a crash between writing a segment and dropping its bookings from the hot tier:
+     * hot bookings that already made it into the archive are forgotten.
+     */
+    public TieredBookingRepository(BookingRepository hot, BookingArchive archive) {
+        this.hot = hot;
+        this.archive = archive;
+        LocalDate lastArchived = archive.getLastDate();
+        if (lastArchived != null) {
+            for (Booking booking : List.copyOf(hot.getAllBookings())) {
+                if (!booking.getDate().isAfter(lastArchived) && archive.findById(booking.getId()).isPresent()
+                        && hot.removeBooking(booking)) {
+                    booking.getWorkspace().removeBooking(booking);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void addBooking(Booking booking) {
+        hot.addBooking(booking);
+    }
+
+    @Override
+    public void addBookings(Collection<Booking> bookings) {
+        hot.addBookings(bookings);
+    }
+
+    @Override
+    public boolean removeBooking(Booking booking) {
+        return hot.removeBooking(booking);
+    }
+
+    @Override
+    public void removeBookings(Collection<Booking> bookings) {
+        hot.removeBookings(bookings);
+    }
+
+    /**
+     * Takes the days before {@code date} off the hot tier, then archives the bookings they held.
+     * Taking them first means a cancellation either wins and the booking is never archived, or
+     * loses and finds it gone; lookups miss the bookings while the segment is written. The hot tier
+     * must make the drop durable only after this returns, as {@link DurableBookingRepository} does
+     * with a deferred journal, so that a crash before the segment is durable loses nothing. If the
+     * segment cannot be written, the bookings go back to the hot tier.
+     */
+    @Override
+    public synchronized Collection<Booking> removeBookingsBefore(LocalDate date) {
+        Collection<Booking> expired = hot.removeBookingsBefore(date);
+        try {
+            archive.archive(expired);
+        } catch (IOException e) {
+            hot.addBookings(expired);
+            throw new UncheckedIOException("Error archiving bookings", e);
+        }
+        return expired;
+    }
+
+    @Override
+    public Collection<Booking> getAllBookings() {
+        return hot.getAllBookings();
+    }
+
+    @Override
+    public long generateId() {
+        return hot.generateId();
+    }
+
+    @Override
+    public Optional<Booking> findById(long id) {
+        Optional<Booking> booking = hot.findById(id);
+        return booking.isPresent() ? booking : archive.findById(id);
+    }
+
+    @Override
+    public Collection<Booking> findByCustomer(String userName) {
+        List<Booking> bookings = new ArrayList<>(hot.findByCustomer(userName));
+        archive.iteratorByCustomer(userName, Page.FIRST).forEachRemaining(bookings::add);
+        return Collections.unmodifiableList(bookings);
+    }
+
+    @Override
+    public Collection<Booking> findByWorkspace(Workspace workspace) {
+        return hot.findByWorkspace(workspace);
+    }
+
+    @Override
+    public Collection<Booking> findByDate(LocalDate date) {
+        List<Booking> bookings = new ArrayList<>(hot.findByDate(date));
+        archive.iteratorByDate(date).forEachRemaining(bookings::add);
+        return Collections.unmodifiableList(bookings);
+    }
+
+    @Override
+    public Collection<Booking> findByCustomer(String userName, LocalDate date) {
+        List<Booking> bookings = new ArrayList<>(hot.findByCustomer(userName, date));
+        archive.iteratorByDate(date).forEachRemaining(booking -> {
+            if (booking.getCustomer().getUserName().equals(userName)) {
+                bookings.add(booking);
+            }
+        });
+        return Collections.unmodifiableList(bookings);
+    }
+
+    @Override
+    public Page<Booking> findPage(long afterId, int limit) {
+        return Page.of(BookingArchive.merge(List.of(hotIterator(afterId), archive.iterator(afterId))),
+                limit, afterId, Booking::getId);
+    }
+
+    @Override
+    public Page<Booking> findPageByCustomer(String userName, long afterId, int limit) {
+        Iterator<Booking> hotBookings = new PagingIterator(afterId, cursor -> hot.findPageByCustomer(userName, cursor, limit));
+        return Page.of(BookingArchive.merge(List.of(hotBookings, archive.iteratorByCustomer(userName, afterId))),
+                limit, afterId, Booking::getId);
+    }
+
+    @Override
+    public Stream<Booking> streamBookings() {
+        Iterator<Booking> merged = BookingArchive.merge(List.of(hotIterator(Page.FIRST), archive.iterator(Page.FIRST)));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT), false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        archive.close();
+    }
+
+    // The hot tier's id order comes from its pages, so this works for any implementation
+    private Iterator<Booking> hotIterator(long afterId) {
+        return new PagingIterator(afterId, cursor -> hot.findPage(cursor, PagingIterator.PAGE_SIZE));
+    }
+
+    private static final class PagingIterator implements Iterator<Booking> {
+        static final int PAGE_SIZE = 256;
+
+        private final LongFunction<Page<Booking>> fetch;
+        private Page<Booking> page;
+        private Iterator<Booking> items;
+
+        PagingIterator(long afterId, LongFunction<Page<Booking>> fetch) {
+            this.fetch = fetch;
+            this.page = fetch.apply(afterId);
+            this.items = page.getItems().iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!items.hasNext()) {
+                if (!page.hasNext()) {
+                    return false;
+                }
+                page = fetch.apply(page.getNextCursor());
+                items = page.getItems().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public Booking next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return items.next();
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.andersen.repository.id;
+
+public interface IdGenerator {
+    long nextId();
+}
@@ -0,0 +1,58 @@
+package com.andersen.repository.id;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Claims a node id that no other live JVM sharing the same data directory holds, by taking an
+ * exclusive lock on {@code nodes/node-N.lock}. The lock is released on {@link #close()} or when the
+ * process exits, so a crashed node's id becomes free again.
+ */
+public class NodeIdLease implements AutoCloseable {
+    private final int nodeId;
+    private final FileChannel channel;
+    private final FileLock lock;
+
+    private NodeIdLease(int nodeId, FileChannel channel, FileLock lock) {
+        this.nodeId = nodeId;
+        this.channel = channel;
+        this.lock = lock;
+    }
+
+    public static NodeIdLease acquire(Path dataDirectory) throws IOException {
+        Path nodesDirectory = Files.createDirectories(dataDirectory.resolve("nodes"));
+        for (int nodeId = 0; nodeId <= SnowflakeIdGenerator.MAX_NODE_ID; nodeId++) {
+            Path file = nodesDirectory.resolve("node-" + nodeId + ".lock");
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null; // Held by this JVM already
+            }
+            if (lock != null) {
+                return new NodeIdLease(nodeId, channel, lock);
+            }
+            channel.close();
+        }
+        throw new IOException("No free node id left in " + nodesDirectory + ".");
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            lock.release();
+        } finally {
+            channel.close();
+        }
+    }
+}
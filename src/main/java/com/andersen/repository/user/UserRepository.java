@@ -0,0 +1,21 @@
+package com.andersen.repository.user;
+
+import com.andersen.entity.role.User;
+import com.andersen.entity.role.UserRole;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface UserRepository {
+
+    /**
+     * @return {@code false} if the user name is already taken
+     */
+    boolean addUser(User user);
+
+    Optional<User> findByUserName(String userName);
+
+    Optional<User> findByUserName(String userName, UserRole role);
+
+    Collection<User> getAllUsers();
+}
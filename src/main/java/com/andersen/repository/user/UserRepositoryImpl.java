@@ -0,0 +1,59 @@
+package com.andersen.repository.user;
+
+import com.andersen.entity.role.User;
+import com.andersen.entity.role.UserRole;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * User directory keyed by user name, with one extra index per role, so logins and duplicate
+ * checks are single hash lookups and concurrent registrations of the same name cannot both win.
+ */
+public class UserRepositoryImpl implements UserRepository {
+    private final Map<String, User> usersByName = new ConcurrentHashMap<>();
+    private final Map<UserRole, Map<String, User>> usersByRole = new EnumMap<>(UserRole.class);
+
+    public UserRepositoryImpl() {
+        for (UserRole role : UserRole.values()) {
+            usersByRole.put(role, new ConcurrentHashMap<>());
+        }
+    }
+
+    public UserRepositoryImpl(Collection<? extends User> users) {
+        this();
+        for (User user : users) {
+            addUser(user);
+        }
+    }
+
+    @Override
+    public boolean addUser(User user) {
+        if (usersByName.putIfAbsent(user.getUserName(), user) != null) {
+            return false;
+        }
+        if (user.getRole() != null) {
+            usersByRole.get(user.getRole()).put(user.getUserName(), user);
+        }
+        return true;
+    }
+
+    @Override
+    public Optional<User> findByUserName(String userName) {
+        return Optional.ofNullable(usersByName.get(userName));
+    }
+
+    @Override
+    public Optional<User> findByUserName(String userName, UserRole role) {
+        return Optional.ofNullable(usersByRole.get(role).get(userName));
+    }
+
+    @Override
+    public Collection<User> getAllUsers() {
+        return Collections.unmodifiableCollection(usersByName.values());
+    }
+}
@@ -0,0 +1,37 @@
+package com.andersen.repository.workspace;
+
+import com.andersen.entity.workspace.Workspace;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable, versioned view of the workspace catalog in id order. Readers share one instance
+ * without copying or locking, and a changed {@link #getVersion()} is the cheap way to notice that
+ * the catalog moved on.
+ */
+public final class CatalogSnapshot {
+    static final CatalogSnapshot EMPTY = new CatalogSnapshot(0, new Workspace[0]);
+
+    private final long version;
+    private final List<Workspace> workspaces;
+
+    private CatalogSnapshot(long version, Workspace[] workspaces) {
+        this.version = version;
+        this.workspaces = Collections.unmodifiableList(Arrays.asList(workspaces));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Workspace> getWorkspaces() {
+        return workspaces;
+    }
+
+    static CatalogSnapshot of(long version, Collection<Workspace> workspaces) {
+        return new CatalogSnapshot(version, workspaces.toArray(new Workspace[0]));
+    }
+}
@@ -0,0 +1,248 @@
+package com.andersen.repository.workspace;
+
+import com.andersen.entity.workspace.Workspace;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Loads the {@code name,description} snapshot by memory-mapping it, cutting it into line-aligned
+ * chunks and parsing the chunks in parallel on a fork-join pool. Lines are scanned byte by byte,
+ * so the only allocations per line are the two resulting strings.
+ * <p>
+ * Semantics match the original {@code BufferedReader} loader: lines without a comma are skipped,
+ * the first comma separates name from description, both sides are trimmed, and {@code \r\n}
+ * line endings are accepted. A file starting with the {@value #ID_HEADER} line carries an id in
+ * front of every line ({@code id,name,description}); plain files leave ids unassigned. The header
+ * may end with {@value #LAST_ID_FIELD}{@code n}, the highest id ever issued, which can belong to a
+ * workspace that is gone.
+ */
+public class WorkspaceFileLoader {
+    public static final String ID_HEADER = "#id,name,description";
+    public static final String LAST_ID_FIELD = ";lastId=";
+
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    private static final int MAX_CHUNK_SIZE = 1 << 28;
+    private static final int BOUNDARY_SCAN_SIZE = 8 * 1024;
+
+    private final ForkJoinPool pool;
+    private final Charset charset;
+
+    public WorkspaceFileLoader() {
+        this(ForkJoinPool.commonPool(), Charset.defaultCharset());
+    }
+
+    public WorkspaceFileLoader(ForkJoinPool pool, Charset charset) {
+        this.pool = pool;
+        this.charset = charset;
+    }
+
+    public List<Workspace> load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long dataStart = idHeaderLength(channel, size);
+            if (size == dataStart) {
+                return new ArrayList<>();
+            }
+            List<long[]> chunks = splitIntoChunks(channel, dataStart, size);
+            try {
+                return pool.invoke(new ChunkTask(channel, chunks, 0, chunks.size(), dataStart > 0));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Highest id recorded in the header, or 0 if the file does not record one.
+     */
+    public long readLastId(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long headerEnd = idHeaderLength(channel, size);
+            if (headerEnd == 0) {
+                return 0;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(headerEnd, BOUNDARY_SCAN_SIZE));
+            channel.read(buffer, 0);
+            buffer.flip();
+            String header = charset.decode(buffer).toString().trim();
+            int field = header.indexOf(LAST_ID_FIELD);
+            if (field < 0) {
+                return 0;
+            }
+            try {
+                return Math.max(0, Long.parseLong(header.substring(field + LAST_ID_FIELD.length()).trim()));
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+    }
+
+    // Length of the id header line including its line break, or 0 if the file has none
+    private long idHeaderLength(FileChannel channel, long size) throws IOException {
+        byte[] expected = ID_HEADER.getBytes(charset);
+        ByteBuffer buffer = ByteBuffer.allocate(expected.length + 2);
+        channel.read(buffer, 0);
+        buffer.flip();
+        if (buffer.remaining() < expected.length) {
+            return 0;
+        }
+        for (byte b : expected) {
+            if (buffer.get() != b) {
+                return 0;
+            }
+        }
+        return Math.min(size, nextLineStart(channel, expected.length, size));
+    }
+
+    private List<long[]> splitIntoChunks(FileChannel channel, long dataStart, long size) throws IOException {
+        long chunkSize = (size - dataStart) / ((long) pool.getParallelism() * 4);
+        chunkSize = Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, chunkSize));
+
+        List<long[]> chunks = new ArrayList<>();
+        long start = dataStart;
+        while (start < size) {
+            long end = start + chunkSize >= size ? size : nextLineStart(channel, start + chunkSize, size);
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    // First offset after the line break at or following position, or size if there is none
+    private long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_SCAN_SIZE);
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private class ChunkTask extends RecursiveTask<List<Workspace>> {
+        private final FileChannel channel;
+        private final List<long[]> chunks;
+        private final int from;
+        private final int to;
+        private final boolean withIds;
+
+        ChunkTask(FileChannel channel, List<long[]> chunks, int from, int to, boolean withIds) {
+            this.channel = channel;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+            this.withIds = withIds;
+        }
+
+        @Override
+        protected List<Workspace> compute() {
+            if (to - from == 1) {
+                long[] chunk = chunks.get(from);
+                try {
+                    return parse(channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]), withIds);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            int middle = (from + to) >>> 1;
+            ChunkTask right = new ChunkTask(channel, chunks, middle, to, withIds);
+            right.fork();
+            List<Workspace> result = new ChunkTask(channel, chunks, from, middle, withIds).compute();
+            result.addAll(right.join());
+            return result;
+        }
+    }
+
+    private List<Workspace> parse(MappedByteBuffer buffer, boolean withIds) {
+        List<Workspace> workspaces = new ArrayList<>();
+        byte[] scratch = new byte[256];
+        int limit = buffer.limit();
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            boolean idPending = withIds;
+            int idComma = lineStart - 1;
+            int comma = -1;
+            while (lineEnd < limit) {
+                byte b = buffer.get(lineEnd);
+                if (b == '\n') {
+                    break;
+                }
+                if (b == ',' && comma < 0) {
+                    if (idPending) {
+                        idComma = lineEnd;
+                        idPending = false;
+                    } else {
+                        comma = lineEnd;
+                    }
+                }
+                lineEnd++;
+            }
+            int next = lineEnd + 1;
+            if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            if (comma >= 0 && comma < lineEnd) {
+                if (scratch.length < lineEnd - lineStart) {
+                    scratch = new byte[Math.max(lineEnd - lineStart, scratch.length * 2)];
+                }
+                String name = trimmed(buffer, idComma + 1, comma, scratch);
+                String description = trimmed(buffer, comma + 1, lineEnd, scratch);
+                Workspace workspace = new Workspace(name, description);
+                if (withIds) {
+                    workspace.setId(parseId(buffer, lineStart, idComma));
+                }
+                workspaces.add(workspace);
+            }
+            lineStart = next;
+        }
+        return workspaces;
+    }
+
+    // 0, meaning "assign a new id", unless the field is a positive decimal number
+    private static long parseId(MappedByteBuffer buffer, int start, int end) {
+        long id = 0;
+        for (int i = start; i < end; i++) {
+            int b = buffer.get(i) & 0xff;
+            if (b <= ' ') {
+                continue;
+            }
+            if (b < '0' || b > '9' || id > (Long.MAX_VALUE - 9) / 10) {
+                return 0;
+            }
+            id = id * 10 + (b - '0');
+        }
+        return id;
+    }
+
+    // Same rule as String.trim(): drop leading and trailing bytes <= ' '
+    private String trimmed(MappedByteBuffer buffer, int start, int end, byte[] scratch) {
+        while (start < end && (buffer.get(start) & 0xff) <= ' ') {
+            start++;
+        }
+        while (end > start && (buffer.get(end - 1) & 0xff) <= ' ') {
+            end--;
+        }
+        buffer.get(start, scratch, 0, end - start);
+        return new String(scratch, 0, end - start, charset);
+    }
+}
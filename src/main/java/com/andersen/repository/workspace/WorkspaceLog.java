@@ -0,0 +1,253 @@
+package com.andersen.repository.workspace;
+
+import com.andersen.entity.workspace.Workspace;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only operation log for the workspace catalog.
+ * <p>
+ * Each record is {@code [int length][int crc32][payload]}. Appends only buffer the record; the
+ * first caller to {@link #commit(long)} writes every pending record with one write and, depending
+ * on the {@link FsyncPolicy}, one {@code fsync}. Callers that arrive while a flush is running find
+ * their record already on disk when they get the lock (group commit).
+ */
+public class WorkspaceLog implements AutoCloseable {
+    public enum FsyncPolicy {
+        /** fsync before every commit returns. */
+        ALWAYS,
+        /** Commits reach the OS immediately; {@link #sync()} is expected to be called periodically. */
+        PERIODIC,
+        /** Leave flushing to the OS. */
+        NEVER
+    }
+
+    public enum Operation {
+        ADD, REMOVE
+    }
+
+    public static class Entry {
+        private final Operation operation;
+        private final long id;
+        private final String name;
+        private final String description;
+
+        Entry(Operation operation, long id, String name, String description) {
+            this.operation = operation;
+            this.id = id;
+            this.name = name;
+            this.description = description;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        /**
+         * @return the workspace id, or 0 for records written before workspaces had ids
+         */
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private static final int HEADER_SIZE = 8;
+    private static final int WITH_ID = 0x80; // Operation byte flag; older records carry no id
+
+    private final Path path;
+    private final FsyncPolicy fsyncPolicy;
+    private final FileChannel channel;
+
+    private final Object appendLock = new Object();
+    private final Object flushLock = new Object();
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long appendedSequence;
+    private volatile long committedSequence;
+
+    public WorkspaceLog(Path path, FsyncPolicy fsyncPolicy) throws IOException {
+        this.path = path;
+        this.fsyncPolicy = fsyncPolicy;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Buffers a record.
+     *
+     * @return sequence number to pass to {@link #commit(long)}
+     */
+    public long append(Operation operation, Workspace workspace) throws IOException {
+        byte[] payload = encode(operation, workspace);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(payload.length).putInt((int) crc.getValue());
+        synchronized (appendLock) {
+            pending.write(header.array());
+            pending.write(payload);
+            return ++appendedSequence;
+        }
+    }
+
+    /**
+     * Returns once the record with the given sequence number is written, and synced if the policy
+     * is {@link FsyncPolicy#ALWAYS}.
+     */
+    public void commit(long sequence) throws IOException {
+        if (committedSequence >= sequence) {
+            return;
+        }
+        synchronized (flushLock) {
+            if (committedSequence >= sequence) {
+                return; // Flushed as part of another caller's batch
+            }
+            flushPending(fsyncPolicy == FsyncPolicy.ALWAYS);
+        }
+    }
+
+    public void sync() throws IOException {
+        synchronized (flushLock) {
+            flushPending(true);
+        }
+    }
+
+    private void flushPending(boolean force) throws IOException {
+        ByteArrayOutputStream batch;
+        long batchSequence;
+        synchronized (appendLock) {
+            batch = pending;
+            batchSequence = appendedSequence;
+            pending = new ByteArrayOutputStream();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, channel.size());
+        }
+        if (force) {
+            channel.force(false);
+        }
+        committedSequence = batchSequence;
+    }
+
+    /**
+     * Reads every intact record in order. A torn or corrupt tail, left by a crash in the middle of
+     * a write, is cut off so that later appends start from the last good record.
+     */
+    public void replay(Consumer<Entry> consumer) throws IOException {
+        synchronized (flushLock) {
+            long size = channel.size();
+            long position = 0;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (position + HEADER_SIZE <= size) {
+                header.clear();
+                readFully(header, position);
+                header.flip();
+                int length = header.getInt();
+                int checksum = header.getInt();
+                if (length < 0 || position + HEADER_SIZE + length > size) {
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                readFully(payload, position + HEADER_SIZE);
+                CRC32 crc = new CRC32();
+                crc.update(payload.array());
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                consumer.accept(decode(payload.array()));
+                position += HEADER_SIZE + length;
+            }
+            if (position < size) {
+                channel.truncate(position);
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Drops every record. Only safe once the state the records describe is captured in a snapshot.
+     */
+    public void reset() throws IOException {
+        synchronized (flushLock) {
+            synchronized (appendLock) {
+                pending = new ByteArrayOutputStream();
+                committedSequence = appendedSequence;
+            }
+            channel.truncate(0);
+            channel.force(true);
+        }
+    }
+
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of " + path);
+            }
+        }
+    }
+
+    private static byte[] encode(Operation operation, Workspace workspace) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(operation.ordinal() | WITH_ID);
+            out.writeLong(workspace.getId());
+            writeString(out, workspace.getName());
+            writeString(out, workspace.getDescription());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static Entry decode(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        int operation = buffer.get() & 0xff;
+        long id = (operation & WITH_ID) != 0 ? buffer.getLong() : 0;
+        String name = readString(buffer);
+        String description = readString(buffer);
+        return new Entry(Operation.values()[operation & ~WITH_ID], id, name, description);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -3,14 +3,42 @@ package com.andersen.repository.workspace;
 import com.andersen.entity.workspace.Workspace;
 import com.andersen.exception.WorkspaceNotFoundException;
 
+import com.andersen.repository.Page;
+
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface WorkspaceRepository {
+    /**
+     * Gives the workspace the next id and adds it; a workspace that already has an id is rejected.
+     */
     void addWorkspace(Workspace workspace) throws WorkspaceNotFoundException;
 
-    void removeWorkspace(Workspace workspace);
+    void removeWorkspace(Workspace workspace) throws WorkspaceNotFoundException;
 
     List<Workspace> getAllWorkspaces();
 
+    Optional<Workspace> findById(long id);
+
+    /**
+     * @return the removed workspace, or empty if no workspace has that id
+     */
+    Optional<Workspace> removeById(long id) throws WorkspaceNotFoundException;
+
+    /**
+     * Workspaces with an id greater than {@code afterId}, in id order.
+     */
+    Page<Workspace> findPage(long afterId, int limit);
+
+    Stream<Workspace> streamWorkspaces();
+
+    /**
+     * Increases with every catalog change.
+     */
+    long getVersion();
+
+    void loadWorkspacesFromFile() throws WorkspaceNotFoundException;
 
+    void saveWorkspacesToFile() throws WorkspaceNotFoundException;
 }
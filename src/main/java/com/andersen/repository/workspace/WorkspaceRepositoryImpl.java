@@ -2,59 +2,349 @@ package com.andersen.repository.workspace;
 
 import com.andersen.entity.workspace.Workspace;
 import com.andersen.exception.WorkspaceNotFoundException;
+import com.andersen.repository.Page;
 import java.io.*;
-import java.util.ArrayList;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
+/**
+ * Workspace catalog persisted as a snapshot ({@code workspaces.txt}) plus an append-only
+ * {@link WorkspaceLog} of the changes made since. Each change costs one small sequential append;
+ * a background task rolls the log into a fresh snapshot once it grows past a threshold.
+ * <p>
+ * Workspaces get an id from a counter when they enter the catalog. In memory they are kept in a
+ * hash map for lock-free lookups and an insertion-ordered map that writers change under the
+ * repository lock. Each change is logged first and applied only once the append succeeds; the
+ * writer then publishes the next {@link CatalogSnapshot}, so readers never lock or copy.
+ */
 public class WorkspaceRepositoryImpl implements WorkspaceRepository {
-    private final List<Workspace> workspaces = new ArrayList<>();
-    private final String filePath = "workspaces.txt"; // File to store
+    private static final long DEFAULT_COMPACTION_THRESHOLD_BYTES = 64 * 1024;
+    private static final long COMPACTION_INTERVAL_SECONDS = 30;
 
+    private final Map<Long, Workspace> workspacesById = new ConcurrentHashMap<>();
+    private final Map<Long, Workspace> workspacesInOrder = new LinkedHashMap<>(); // Guarded by this
+    private final AtomicLong lastId = new AtomicLong();
+    private volatile CatalogSnapshot catalog = CatalogSnapshot.EMPTY;
+    private final String filePath; // File to store
+    private final Path logPath;
+    private final WorkspaceLog.FsyncPolicy fsyncPolicy;
+    private final long compactionThresholdBytes;
+    private final WorkspaceFileLoader loader = new WorkspaceFileLoader();
+    private WorkspaceLog log;
+    private ScheduledExecutorService maintenance;
+
+    public WorkspaceRepositoryImpl() {
+        this("workspaces.txt", "workspaces.log", WorkspaceLog.FsyncPolicy.ALWAYS, DEFAULT_COMPACTION_THRESHOLD_BYTES);
+    }
+
+    public WorkspaceRepositoryImpl(String filePath, String logPath, WorkspaceLog.FsyncPolicy fsyncPolicy,
+                                   long compactionThresholdBytes) {
+        this.filePath = filePath;
+        this.logPath = Path.of(logPath);
+        this.fsyncPolicy = fsyncPolicy;
+        this.compactionThresholdBytes = compactionThresholdBytes;
+    }
+
+    /**
+     * Ids are handed out by the catalog, so the workspace must not have one yet. If the log append
+     * fails, neither the catalog nor the workspace is changed.
+     */
     @Override
     public void addWorkspace(Workspace workspace) throws WorkspaceNotFoundException {
-        if (workspace != null) {
-            workspaces.add(workspace);
-        } else {
+        if (workspace == null) {
             throw new WorkspaceNotFoundException("Workspace cannot be null.");
         }
+        if (workspace.getId() != 0) {
+            throw new IllegalArgumentException("Workspace already has id " + workspace.getId()
+                    + "; ids are assigned when a workspace enters the catalog.");
+        }
+        long sequence;
+        synchronized (this) {
+            workspace.setId(lastId.get() + 1);
+            try {
+                sequence = append(WorkspaceLog.Operation.ADD, workspace);
+            } catch (WorkspaceNotFoundException e) {
+                workspace.setId(0);
+                throw e;
+            }
+            lastId.incrementAndGet();
+            workspacesById.put(workspace.getId(), workspace);
+            workspacesInOrder.put(workspace.getId(), workspace);
+            publish();
+        }
+        commit(sequence);
+    }
+
+    @Override
+    public void removeWorkspace(Workspace workspace) throws WorkspaceNotFoundException {
+        long sequence;
+        synchronized (this) {
+            if (workspace == null || workspacesInOrder.get(workspace.getId()) != workspace) {
+                System.out.println("Workspace not found for removal.");
+                return;
+            }
+            sequence = append(WorkspaceLog.Operation.REMOVE, workspace);
+            unlink(workspace);
+        }
+        commit(sequence);
+    }
+
+    @Override
+    public Optional<Workspace> findById(long id) {
+        return Optional.ofNullable(workspacesById.get(id));
     }
 
     @Override
-    public void removeWorkspace(Workspace workspace) {
-        if (!workspaces.remove(workspace)) {
-            System.out.println("Workspace not found for removal.");
+    public Optional<Workspace> removeById(long id) throws WorkspaceNotFoundException {
+        Workspace workspace;
+        long sequence;
+        synchronized (this) {
+            workspace = workspacesInOrder.get(id);
+            if (workspace == null) {
+                return Optional.empty();
+            }
+            sequence = append(WorkspaceLog.Operation.REMOVE, workspace);
+            unlink(workspace);
         }
+        commit(sequence);
+        return Optional.of(workspace);
     }
 
     @Override
     public List<Workspace> getAllWorkspaces() {
-        return new ArrayList<>(workspaces);
+        return getSnapshot().getWorkspaces();
     }
 
-    public void loadWorkspacesFromFile() throws WorkspaceNotFoundException {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",", 2); // Limit to 2 parts
-                if (parts.length == 2) {
-                    String name = parts[0].trim();
-                    String description = parts[1].trim();
-                    workspaces.add(new Workspace(name, description));
-                }
+    /**
+     * Ids grow in insertion order, so the snapshot is sorted by id and a page starts with a binary
+     * search; a cursor keeps its place when workspaces before it are removed.
+     */
+    @Override
+    public Page<Workspace> findPage(long afterId, int limit) {
+        List<Workspace> workspaces = getAllWorkspaces();
+        int low = 0;
+        int high = workspaces.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (workspaces.get(middle).getId() <= afterId) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        int to = (int) Math.min(workspaces.size(), (long) low + limit);
+        long nextCursor = to > low ? workspaces.get(to - 1).getId() : afterId;
+        return new Page<>(workspaces.subList(low, to), nextCursor, to < workspaces.size());
+    }
+
+    @Override
+    public Stream<Workspace> streamWorkspaces() {
+        return getAllWorkspaces().stream();
+    }
+
+    public CatalogSnapshot getSnapshot() {
+        return catalog;
+    }
+
+    @Override
+    public long getVersion() {
+        return catalog.getVersion();
+    }
+
+    /**
+     * Loads the snapshot, replays the log on top of it and starts background compaction.
+     */
+    @Override
+    public synchronized void loadWorkspacesFromFile() throws WorkspaceNotFoundException {
+        Map<Long, Workspace> workspaces = new LinkedHashMap<>();
+        try {
+            Path snapshot = Path.of(filePath);
+            lastId.accumulateAndGet(loader.readLastId(snapshot), Math::max);
+            // Ids are settled before the replay, whose removals refer to them
+            for (Workspace workspace : loader.load(snapshot)) {
+                assignId(workspace, workspaces);
+                workspaces.put(workspace.getId(), workspace);
             }
         } catch (IOException e) {
             throw new WorkspaceNotFoundException("Error loading workspaces: " + e.getMessage());
         }
+
+        try {
+            openLog().replay(entry -> apply(workspaces, entry));
+        } catch (IOException e) {
+            throw new WorkspaceNotFoundException("Error replaying workspace log: " + e.getMessage());
+        }
+        for (Workspace workspace : workspaces.values()) {
+            workspacesById.put(workspace.getId(), workspace);
+            workspacesInOrder.put(workspace.getId(), workspace);
+        }
+        publish(); // Once, after the whole replay
+        startMaintenance();
     }
 
-    public void saveWorkspacesToFile() throws WorkspaceNotFoundException {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            for (Workspace workspace : workspaces) {
-                writer.write(workspace.getName() + "," + workspace.getDescription());
+    /**
+     * Writes the whole catalog as a new snapshot, atomically replacing the old one. The header
+     * records the highest id issued so far, so ids of removed workspaces are not handed out again.
+     */
+    @Override
+    public synchronized void saveWorkspacesToFile() throws WorkspaceNotFoundException {
+        Path target = Path.of(filePath);
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temporary.toFile());
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out))) {
+            writer.write(WorkspaceFileLoader.ID_HEADER + WorkspaceFileLoader.LAST_ID_FIELD + lastId.get());
+            writer.newLine();
+            for (Workspace workspace : workspacesInOrder.values()) {
+                writer.write(workspace.getId() + "," + workspace.getName() + "," + workspace.getDescription());
                 writer.newLine();
             }
+            writer.flush();
+            out.getFD().sync(); // The log is dropped after this, so the snapshot must be durable
+        } catch (IOException e) {
+            throw new WorkspaceNotFoundException("Error saving workspaces: " + e.getMessage());
+        }
+        try {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
             throw new WorkspaceNotFoundException("Error saving workspaces: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Rolls the log into a new snapshot. Holding the repository lock keeps writers out, so every
+     * change is either in the snapshot or still in the log, never in both.
+     */
+    public synchronized void compact() throws WorkspaceNotFoundException {
+        saveWorkspacesToFile();
+        try {
+            openLog().reset();
+        } catch (IOException e) {
+            throw new WorkspaceNotFoundException("Error compacting workspace log: " + e.getMessage());
+        }
+    }
+
+    public synchronized void close() throws WorkspaceNotFoundException {
+        if (maintenance != null) {
+            maintenance.shutdownNow();
+            maintenance = null;
+        }
+        if (log != null) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                throw new WorkspaceNotFoundException("Error closing workspace log: " + e.getMessage());
+            } finally {
+                log = null;
+            }
+        }
+    }
+
+    private void unlink(Workspace workspace) {
+        workspacesInOrder.remove(workspace.getId());
+        workspacesById.remove(workspace.getId());
+        publish();
+    }
+
+    // Called by writers under the repository lock; readers pick the result up with one volatile read
+    private void publish() {
+        catalog = CatalogSnapshot.of(catalog.getVersion() + 1, workspacesInOrder.values());
+    }
+
+    // Keeps an id restored from disk unless it is taken; anything else gets the next one
+    private void assignId(Workspace workspace, Map<Long, Workspace> taken) {
+        if (workspace.getId() == 0 || taken.containsKey(workspace.getId())) {
+            workspace.setId(lastId.incrementAndGet());
+        } else {
+            lastId.accumulateAndGet(workspace.getId(), Math::max);
+        }
+    }
+
+    private void apply(Map<Long, Workspace> workspaces, WorkspaceLog.Entry entry) {
+        if (entry.getOperation() == WorkspaceLog.Operation.ADD) {
+            if (workspaces.containsKey(entry.getId())) {
+                // Already in the snapshot: compaction stopped between writing it and resetting the log
+                return;
+            }
+            Workspace workspace = new Workspace(entry.getName(), entry.getDescription());
+            workspace.setId(entry.getId());
+            assignId(workspace, workspaces);
+            workspaces.put(workspace.getId(), workspace);
+            return;
+        }
+        if (entry.getId() != 0) {
+            workspaces.remove(entry.getId());
+            return;
+        }
+        Iterator<Workspace> iterator = workspaces.values().iterator();
+        while (iterator.hasNext()) {
+            Workspace workspace = iterator.next();
+            if (workspace.getName().equals(entry.getName()) && workspace.getDescription().equals(entry.getDescription())) {
+                iterator.remove();
+                return;
+            }
+        }
+    }
+
+    private long append(WorkspaceLog.Operation operation, Workspace workspace) throws WorkspaceNotFoundException {
+        try {
+            return openLog().append(operation, workspace);
+        } catch (IOException e) {
+            throw new WorkspaceNotFoundException("Error saving workspaces: " + e.getMessage());
+        }
+    }
+
+    // Called outside the repository lock so concurrent writers share one fsync
+    private void commit(long sequence) throws WorkspaceNotFoundException {
+        try {
+            openLog().commit(sequence);
+        } catch (IOException e) {
+            throw new WorkspaceNotFoundException("Error saving workspaces: " + e.getMessage());
+        }
+    }
+
+    private synchronized WorkspaceLog openLog() throws IOException {
+        if (log == null) {
+            log = new WorkspaceLog(logPath, fsyncPolicy);
+        }
+        return log;
+    }
+
+    private synchronized void startMaintenance() {
+        if (maintenance != null) {
+            return;
+        }
+        maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "workspace-log-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maintenance.scheduleWithFixedDelay(this::runMaintenance,
+                COMPACTION_INTERVAL_SECONDS, COMPACTION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void runMaintenance() {
+        try {
+            WorkspaceLog current = openLog();
+            if (fsyncPolicy == WorkspaceLog.FsyncPolicy.PERIODIC) {
+                current.sync();
+            }
+            if (current.size() >= compactionThresholdBytes) {
+                compact();
+            }
+        } catch (IOException | WorkspaceNotFoundException e) {
+            System.out.println("Workspace log maintenance failed: " + e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.andersen.service.auth;
 
+import com.andersen.entity.role.User;
 import com.andersen.entity.users.Admin;
 import com.andersen.entity.users.Customer;
 import com.andersen.exception.UserAuthenticationException;
@@ -8,4 +9,16 @@ public interface AuthService {
     Customer loginCustomer(String username, String password) throws UserAuthenticationException;
     Admin loginAdmin(String username, String password) throws UserAuthenticationException;
     void registerUser(String username, String password) throws UserAuthenticationException;
+
+    /**
+     * Issues an opaque token for an already authenticated user.
+     */
+    String createSession(User user);
+
+    /**
+     * Resolves a session token with a single cache lookup instead of re-checking credentials.
+     */
+    User getSessionUser(String token) throws UserAuthenticationException;
+
+    void logout(String token);
 }
@@ -2,49 +2,77 @@ package com.andersen.service.auth;
 
 
 import com.andersen.entity.role.User;
+import com.andersen.entity.role.UserRole;
 import com.andersen.entity.users.Admin;
 import com.andersen.entity.users.Customer;
 import com.andersen.exception.UserAuthenticationException;
+import com.andersen.repository.user.UserRepository;
+import com.andersen.repository.user.UserRepositoryImpl;
 
+import java.time.Duration;
 import java.util.List;
 
 public class AuthServiceImp implements AuthService {
-    private final List<User> users;
+    private static final Duration DEFAULT_SESSION_TTL = Duration.ofMinutes(30);
+    private static final int DEFAULT_MAX_SESSIONS = 10_000;
+
+    private final UserRepository users;
+    private final SessionCache sessions;
 
     public AuthServiceImp(List<User> users) {
+        this(new UserRepositoryImpl(users));
+    }
+
+    public AuthServiceImp(UserRepository users) {
+        this(users, new SessionCache(DEFAULT_SESSION_TTL, DEFAULT_MAX_SESSIONS));
+    }
+
+    public AuthServiceImp(UserRepository users, SessionCache sessions) {
         this.users = users;
+        this.sessions = sessions;
     }
 
     public Customer loginCustomer(String username, String password) throws UserAuthenticationException {
-        return users.stream()
-                .filter(user -> user instanceof Customer &&
-                        user.getUserName().equals(username) &&
-                        user.getPassword().equals(password))
+        return users.findByUserName(username, UserRole.CUSTOMER)
+                .filter(user -> user instanceof Customer && user.getPassword().equals(password))
                 .map(user -> (Customer) user)
-                .findFirst()
                 .orElseThrow(() -> new UserAuthenticationException("Customer not found or invalid credentials."));
     }
 
     public Admin loginAdmin(String username, String password) throws UserAuthenticationException {
-        return users.stream()
-                .filter(user -> user instanceof Admin &&
-                        user.getUserName().equals("admin") &&
-                        user.getPassword().equals("admin"))
+        return users.findByUserName(username, UserRole.ADMIN)
+                .filter(user -> user instanceof Admin && user.getPassword().equals(password))
                 .map(user -> (Admin) user)
-                .findFirst()
                 .orElseThrow(() -> new UserAuthenticationException("Admin not found or invalid credentials."));
     }
 
     public void registerUser(String username, String password) throws UserAuthenticationException {
-
-        if (users.stream().anyMatch(user -> user.getUserName().equals(username))) {
+        if (!users.addUser(new Customer(username, password))) {
             throw new UserAuthenticationException("Username already exists.");
         }
+    }
+
+    @Override
+    public String createSession(User user) {
+        return sessions.create(user);
+    }
+
+    @Override
+    public User getSessionUser(String token) throws UserAuthenticationException {
+        return sessions.get(token)
+                .orElseThrow(() -> new UserAuthenticationException("Session expired or invalid. Please log in again."));
+    }
+
+    @Override
+    public void logout(String token) {
+        sessions.invalidate(token);
+    }
 
-        users.add(new Customer(username, password));
+    public SessionCache getSessionCache() {
+        return sessions;
     }
 
 
 
 
-}
\ No newline at end of file
+}
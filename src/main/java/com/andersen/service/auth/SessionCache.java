@@ -0,0 +1,148 @@
+package com.andersen.service.auth;
+
+import com.andersen.entity.role.User;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of opaque session tokens. Every successful lookup extends a session's lifetime by
+ * the TTL (sliding expiry). When the cache is full, sessions are evicted in issue order, except
+ * that a session used since it was last considered gets a second chance, approximating LRU without
+ * a lock on the read path.
+ * <p>
+ * Tokens invalidated or found expired stay in the eviction queue until it is next swept; a sweep
+ * runs once there are as many of them as the cache holds sessions, so the queue stays within twice
+ * the cache size at an amortized O(1) per removal.
+ */
+public class SessionCache {
+    private static final int TOKEN_BYTES = 32;
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Queue<String> evictionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger staleTokens = new AtomicInteger();
+    private final SecureRandom random = new SecureRandom();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public SessionCache(Duration ttl, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Session cache size must be positive.");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    public String create(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        sessions.put(token, new Session(user, System.nanoTime()));
+        evictionOrder.add(token);
+        evictIfFull();
+        return token;
+    }
+
+    public Optional<User> get(String token) {
+        Session session = token == null ? null : sessions.get(token);
+        if (session == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        long now = System.nanoTime();
+        if (now - session.lastAccess > ttlNanos) {
+            if (sessions.remove(token, session)) {
+                expirations.increment();
+                markStale();
+            }
+            misses.increment();
+            return Optional.empty();
+        }
+        session.lastAccess = now;
+        session.referenced = true;
+        hits.increment();
+        return Optional.of(session.user);
+    }
+
+    public void invalidate(String token) {
+        if (token != null && sessions.remove(token) != null) {
+            markStale();
+        }
+    }
+
+    // Counts a token left behind in the eviction queue and sweeps the queue once they add up
+    private void markStale() {
+        if (staleTokens.incrementAndGet() > maxSize) {
+            staleTokens.set(0);
+            evictionOrder.removeIf(token -> !sessions.containsKey(token));
+        }
+    }
+
+    private void evictIfFull() {
+        while (sessions.size() > maxSize) {
+            String token = evictionOrder.poll();
+            if (token == null) {
+                return;
+            }
+            Session session = sessions.get(token);
+            if (session == null) {
+                continue; // Already invalidated or expired
+            }
+            if (System.nanoTime() - session.lastAccess > ttlNanos) {
+                if (sessions.remove(token, session)) {
+                    expirations.increment();
+                }
+            } else if (session.referenced) {
+                session.referenced = false;
+                evictionOrder.add(token);
+            } else if (sessions.remove(token, session)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    private static class Session {
+        private final User user;
+        private volatile long lastAccess;
+        private volatile boolean referenced;
+
+        Session(User user, long lastAccess) {
+            this.user = user;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.andersen.service.booking;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically drops the bookings of days that are over. With a tiered repository underneath,
+ * dropping moves them to the archive, so the heap only ever holds today and the days ahead.
+ */
+public class BookingCompactor implements AutoCloseable {
+    private final BookingService bookingService;
+    private final Clock clock;
+    private ScheduledExecutorService scheduler;
+
+    public BookingCompactor(BookingService bookingService) {
+        this(bookingService, Clock.systemDefaultZone());
+    }
+
+    public BookingCompactor(BookingService bookingService, Clock clock) {
+        this.bookingService = bookingService;
+        this.clock = clock;
+    }
+
+    /**
+     * Compacts once right away, then every {@code period}.
+     */
+    public synchronized void start(long period, TimeUnit unit) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runCompaction, 0, period, unit);
+    }
+
+    /**
+     * @return number of bookings moved out of memory
+     */
+    public int compact() {
+        return bookingService.dropBookingsBefore(LocalDate.now(clock));
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void runCompaction() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            System.out.println("Booking compaction failed: " + e.getMessage());
+        }
+    }
+}
@@ -2,11 +2,83 @@ package com.andersen.service.booking;
 
 import com.andersen.entity.booking.Booking;
 import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.exception.BookingConflictException;
+import com.andersen.repository.Page;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface BookingService {
-    void makeReservation(Customer customer, Booking booking);
-    void cancelReservation(Customer customer, long bookingIndex);
-    List<Booking> getCustomerBookings(Customer customer);
-}
\ No newline at end of file
+    /**
+     * Creates a booking with a fresh id, not yet reserved. Both front ends create their bookings
+     * here, so a date before today is rejected the same way everywhere.
+     *
+     * @throws IllegalArgumentException if {@code date} is before today
+     */
+    Booking createBooking(Customer customer, Workspace workspace, LocalDate date, LocalTime startTime, LocalTime endTime);
+    void makeReservation(Customer customer, Booking booking) throws BookingConflictException;
+
+    /**
+     * Reserves every booking or none: conflicts and capacity are checked for the whole batch before
+     * anything becomes visible to later callers, and the batch is persisted with one flush.
+     */
+    void makeReservations(Customer customer, List<Booking> bookings) throws BookingConflictException;
+
+    /**
+     * Reserves the booking, or queues it if its time is taken or its slot has no seat left. Each
+     * cancellation on the same workspace and day admits the queued bookings that now fit, highest
+     * {@code priority} first and then in arrival order; a freed seat goes straight to a waiter and
+     * never back to the pool in between. Cancelling the future, or cancelling the booking's id with
+     * {@link #cancelReservation}, leaves the queue.
+     *
+     * @return completes with the booking once it is reserved, or exceptionally with a
+     * {@link BookingConflictException} if the customer already has too many bookings queued, or if
+     * its day is dropped or its workspace removed while it waits
+     */
+    CompletableFuture<Booking> reserveOrWait(Customer customer, Booking booking, int priority);
+
+    /**
+     * Cancels a reservation, or takes a booking queued by {@link #reserveOrWait} off the waitlist.
+     *
+     * @return {@code false} if the customer has no booking with that id
+     */
+    boolean cancelReservation(Customer customer, long bookingIndex);
+
+    /**
+     * Cancels every listed booking or none.
+     *
+     * @return {@code false} if any id does not belong to one of the customer's bookings
+     */
+    boolean cancelReservations(Customer customer, Collection<Long> bookingIds);
+
+    Collection<Booking> getCustomerBookings(Customer customer);
+
+    /**
+     * The customer's bookings on one day, read from that day's partition only.
+     */
+    Collection<Booking> getCustomerBookings(Customer customer, LocalDate date);
+
+    /**
+     * The customer's bookings after {@code afterId} in id order; start with {@link Page#FIRST}.
+     */
+    Page<Booking> getCustomerBookings(Customer customer, long afterId, int limit);
+
+    /**
+     * Every booking after {@code afterId} in id order; start with {@link Page#FIRST}.
+     */
+    Page<Booking> getAllBookings(long afterId, int limit);
+
+    /**
+     * Drops every booking dated before {@code date} from memory, whole days at a time; a tiered
+     * repository archives them rather than forgetting them. Seats are not given back and
+     * cancellation listeners are not called; listeners see one {@link ReservationListener#onDropped} instead.
+     *
+     * @return number of bookings dropped
+     */
+    int dropBookingsBefore(LocalDate date);
+    void addListener(ReservationListener listener);
+}
@@ -2,53 +2,390 @@ package com.andersen.service.booking;
 
 import com.andersen.entity.booking.Booking;
 import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Availability;
 import com.andersen.entity.workspace.Workspace;
+import com.andersen.exception.BookingConflictException;
+import com.andersen.repository.Page;
 import com.andersen.repository.booking.BookingRepository;
-import com.andersen.repository.booking.BookingRepositoryImpl;
+import com.andersen.service.workspace.CatalogListener;
 
+import java.time.Clock;
+import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
-public class BookingServiceImpl implements BookingService {
-    private final BookingRepositoryImpl bookingRepository;
+/**
+ * Also a {@link CatalogListener}: registered with the workspace service, it closes the waitlists of
+ * workspaces that leave the catalog.
+ */
+public class BookingServiceImpl implements BookingService, CatalogListener {
+    // Taken first when two workspaces in a batch share an identity hash, so lock order stays total
+    private static final Lock TIE_LOCK = new ReentrantLock();
+    private static final int DEFAULT_WAITLIST_LIMIT_PER_CUSTOMER = 5;
 
-    public BookingServiceImpl(BookingRepositoryImpl bookingRepository) {
+    private final BookingRepository bookingRepository;
+    private final List<ReservationListener> listeners = new CopyOnWriteArrayList<>();
+    private final Waitlist waitlist;
+    private final Clock clock;
+
+    public BookingServiceImpl(BookingRepository bookingRepository) {
+        this(bookingRepository, DEFAULT_WAITLIST_LIMIT_PER_CUSTOMER);
+    }
+
+    public BookingServiceImpl(BookingRepository bookingRepository, int waitlistLimitPerCustomer) {
+        this(bookingRepository, waitlistLimitPerCustomer, Clock.systemDefaultZone());
+    }
+
+    public BookingServiceImpl(BookingRepository bookingRepository, int waitlistLimitPerCustomer, Clock clock) {
         this.bookingRepository = bookingRepository;
+        this.waitlist = new Waitlist(waitlistLimitPerCustomer);
+        this.clock = clock;
     }
 
-        public Booking createBooking(Customer customer, Workspace workspace, LocalTime startTime, LocalTime endTime) {
+    @Override
+    public Booking createBooking(Customer customer, Workspace workspace, LocalDate date, LocalTime startTime,
+                                 LocalTime endTime) {
+        if (date.isBefore(LocalDate.now(clock))) {
+            throw new IllegalArgumentException("Reservation date cannot be in the past.");
+        }
         long id = bookingRepository.generateId();
-        return new Booking(id, customer, workspace, startTime, endTime);
+        return new Booking(id, customer, workspace, date, startTime, endTime);
+    }
+
+    @Override
+    public void makeReservation(Customer customer, Booking booking) throws BookingConflictException {
+        Workspace workspace = booking.getWorkspace();
+        // Seats are taken with a CAS on the slot and the overlap check holds only this workspace's lock,
+        // so reservations on different workspaces never contend
+        Availability slot = workspace.findAvailability(booking.getDate(), booking.getStartTime());
+        if (slot != null && !slot.tryDecrement()) {
+            throw noCapacity(booking);
+        }
+        if (!workspace.addBooking(booking)) {
+            if (slot != null) {
+                slot.increment();
+            }
+            throw overlapping(booking);
+        }
+        bookingRepository.addBooking(booking);
+        for (ReservationListener listener : listeners) {
+            listener.onReserved(booking);
+        }
     }
 
     @Override
-    public void makeReservation(Customer customer, Booking booking) {
+    public void makeReservations(Customer customer, List<Booking> bookings) throws BookingConflictException {
+        List<Workspace> workspaces = lockOrder(bookings);
+        List<Availability> takenSeats = new ArrayList<>();
+        List<Booking> inserted = new ArrayList<>(bookings.size());
+        lockAll(workspaces);
+        try {
+            // Later bookings in the batch are checked against earlier ones, since those are inserted first
+            for (Booking booking : bookings) {
+                Workspace workspace = booking.getWorkspace();
+                Availability slot = workspace.findAvailability(booking.getDate(), booking.getStartTime());
+                if (slot != null) {
+                    if (!slot.tryDecrement()) {
+                        throw noCapacity(booking);
+                    }
+                    takenSeats.add(slot);
+                }
+                if (!workspace.addBooking(booking)) {
+                    throw overlapping(booking);
+                }
+                inserted.add(booking);
+            }
+        } catch (BookingConflictException e) {
+            for (Booking booking : inserted) {
+                booking.getWorkspace().removeBooking(booking);
+            }
+            for (Availability slot : takenSeats) {
+                slot.increment();
+            }
+            throw e;
+        } finally {
+            unlockAll(workspaces);
+        }
+        bookingRepository.addBookings(bookings);
+        for (Booking booking : bookings) {
+            for (ReservationListener listener : listeners) {
+                listener.onReserved(booking);
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<Booking> reserveOrWait(Customer customer, Booking booking, int priority) {
+        Workspace workspace = booking.getWorkspace();
+        // Queued under the lock cancellations admit waiters under, so time freed in between is not missed
+        workspace.getLock().lock();
+        try {
+            Availability slot = workspace.findAvailability(booking.getDate(), booking.getStartTime());
+            if (slot != null && !slot.tryDecrement()) {
+                return queue(customer, booking, priority);
+            }
+            if (!workspace.addBooking(booking)) {
+                if (slot != null) {
+                    slot.increment();
+                }
+                return queue(customer, booking, priority);
+            }
+        } finally {
+            workspace.getLock().unlock();
+        }
         bookingRepository.addBooking(booking);
-        customer.getBookings().add(booking);
+        for (ReservationListener listener : listeners) {
+            listener.onReserved(booking);
+        }
+        return CompletableFuture.completedFuture(booking);
     }
 
     @Override
-    public void cancelReservation(Customer customer, long bookingId) {
-        List<Booking> bookings = customer.getBookings();
-        Booking bookingToRemove = null;
+    public boolean cancelReservation(Customer customer, long bookingId) {
+        Booking bookingToRemove = findCustomerBooking(customer, bookingId).orElse(null);
+        if (bookingToRemove == null) {
+            return waitlist.withdraw(customer, bookingId);
+        }
+
+        // Every cancellation holds the workspace lock while it claims the booking, so only one caller
+        // gives the seat back and batch cancellations see a stable set
+        Workspace workspace = bookingToRemove.getWorkspace();
+        List<Waitlist.Waiter> admitted;
+        workspace.getLock().lock();
+        try {
+            if (!bookingRepository.removeBooking(bookingToRemove)) {
+                return false;
+            }
+            workspace.removeBooking(bookingToRemove);
+            admitted = releaseAndAdmit(bookingToRemove);
+        } finally {
+            workspace.getLock().unlock();
+        }
+        for (ReservationListener listener : listeners) {
+            listener.onCancelled(bookingToRemove);
+        }
+        finishAdmitted(admitted);
+        return true;
+    }
+
+    @Override
+    public boolean cancelReservations(Customer customer, Collection<Long> bookingIds) {
+        // A repeated id would otherwise be removed, released and reported twice
+        Set<Long> distinctIds = new LinkedHashSet<>(bookingIds);
+        List<Booking> bookings = new ArrayList<>(distinctIds.size());
+        for (long bookingId : distinctIds) {
+            Optional<Booking> booking = findCustomerBooking(customer, bookingId);
+            if (booking.isEmpty()) {
+                return false;
+            }
+            bookings.add(booking.get());
+        }
 
+        List<Workspace> workspaces = lockOrder(bookings);
+        List<Waitlist.Waiter> admitted = new ArrayList<>();
+        lockAll(workspaces);
+        try {
+            for (Booking booking : bookings) {
+                if (bookingRepository.findById(booking.getId()).isEmpty()) {
+                    return false; // Cancelled concurrently
+                }
+            }
+            bookingRepository.removeBookings(bookings);
+            for (Booking booking : bookings) {
+                booking.getWorkspace().removeBooking(booking);
+            }
+            for (Booking booking : bookings) {
+                admitted.addAll(releaseAndAdmit(booking));
+            }
+        } finally {
+            unlockAll(workspaces);
+        }
         for (Booking booking : bookings) {
-            if (booking.getId() == bookingId) {
-                bookingToRemove = booking;
-                break;
+            for (ReservationListener listener : listeners) {
+                listener.onCancelled(booking);
             }
         }
+        finishAdmitted(admitted);
+        return true;
+    }
+
+    @Override
+    public Collection<Booking> getCustomerBookings(Customer customer) {
+        return bookingRepository.findByCustomer(customer.getUserName());
+    }
+
+    @Override
+    public Collection<Booking> getCustomerBookings(Customer customer, LocalDate date) {
+        return bookingRepository.findByCustomer(customer.getUserName(), date);
+    }
+
+    @Override
+    public Page<Booking> getCustomerBookings(Customer customer, long afterId, int limit) {
+        return bookingRepository.findPageByCustomer(customer.getUserName(), afterId, limit);
+    }
+
+    @Override
+    public Page<Booking> getAllBookings(long afterId, int limit) {
+        return bookingRepository.findPage(afterId, limit);
+    }
 
-        if (bookingToRemove != null) {
-            bookings.remove(bookingToRemove);
-            bookingRepository.removeBooking(bookingToRemove);
-        } else {
-            System.out.println("No reservation found with the provided ID.");
+    @Override
+    public int dropBookingsBefore(LocalDate date) {
+        Collection<Booking> dropped = bookingRepository.removeBookingsBefore(date);
+        Map<Workspace, Boolean> workspaces = new IdentityHashMap<>();
+        for (Booking booking : dropped) {
+            workspaces.put(booking.getWorkspace(), Boolean.TRUE);
+        }
+        for (Workspace workspace : workspaces.keySet()) {
+            workspace.removeBookingsBefore(date);
+        }
+        for (ReservationListener listener : listeners) {
+            listener.onDropped(date, dropped);
         }
+        for (Waitlist.Waiter waiter : waitlist.removeBefore(date)) {
+            waiter.future.completeExceptionally(new BookingConflictException("The waitlist for "
+                    + waiter.booking.getWorkspace().getName() + " on " + waiter.booking.getDate() + " has closed."));
+        }
+        return dropped.size();
+    }
+
+    @Override
+    public void addListener(ReservationListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void onWorkspaceAdded(Workspace workspace) {
     }
 
     @Override
-    public List<Booking> getCustomerBookings(Customer customer) {
-        return customer.getBookings();
+    public void onWorkspaceRemoved(Workspace workspace) {
+        for (Waitlist.Waiter waiter : waitlist.removeWorkspace(workspace)) {
+            waiter.future.completeExceptionally(new BookingConflictException(
+                    "Workspace " + workspace.getName() + " was removed while the booking was waiting."));
+        }
+    }
+
+    // Called under the workspace lock
+    private CompletableFuture<Booking> queue(Customer customer, Booking booking, int priority) {
+        CompletableFuture<Booking> reservation = waitlist.add(customer, booking, priority);
+        if (reservation == null) {
+            return CompletableFuture.failedFuture(new BookingConflictException(
+                    "You already have the maximum number of bookings on the waitlist."));
+        }
+        return reservation;
+    }
+
+    private Optional<Booking> findCustomerBooking(Customer customer, long bookingId) {
+        return bookingRepository.findById(bookingId)
+                .filter(booking -> booking.getCustomer().getUserName().equals(customer.getUserName()));
+    }
+
+    /**
+     * Gives the seat and time freed by a cancelled booking to the waiters for its workspace and day,
+     * in queue order, skipping those that still do not fit. Runs under the workspace lock, so the
+     * seat is handed over without passing through the pool, where a plain reservation could take it.
+     */
+    private List<Waitlist.Waiter> releaseAndAdmit(Booking cancelled) {
+        Workspace workspace = cancelled.getWorkspace();
+        Availability freedSeat = workspace.findAvailability(cancelled.getDate(), cancelled.getStartTime());
+        boolean seatHeld = freedSeat != null;
+        List<Waitlist.Waiter> admitted = new ArrayList<>();
+        for (Waitlist.Waiter waiter : waitlist.get(workspace, cancelled.getDate())) {
+            if (waiter.future.isDone()) {
+                continue; // Leaving the queue
+            }
+            Booking booking = waiter.booking;
+            Availability slot = workspace.findAvailability(booking.getDate(), booking.getStartTime());
+            boolean takesFreedSeat = seatHeld && slot == freedSeat;
+            if (slot != null && !takesFreedSeat && !slot.tryDecrement()) {
+                continue;
+            }
+            if (!workspace.addBooking(booking)) {
+                if (slot != null && !takesFreedSeat) {
+                    slot.increment();
+                }
+                continue;
+            }
+            seatHeld &= !takesFreedSeat;
+            waitlist.removeLocked(waiter);
+            admitted.add(waiter);
+        }
+        if (seatHeld) {
+            freedSeat.increment();
+        }
+        return admitted;
+    }
+
+    // Runs once the workspace lock is released, like the tail of makeReservation
+    private void finishAdmitted(List<Waitlist.Waiter> admitted) {
+        for (Waitlist.Waiter waiter : admitted) {
+            bookingRepository.addBooking(waiter.booking);
+            for (ReservationListener listener : listeners) {
+                listener.onReserved(waiter.booking);
+            }
+            if (!waiter.future.complete(waiter.booking)) {
+                cancelReservation(waiter.customer, waiter.booking.getId()); // Left the queue meanwhile
+            }
+        }
+    }
+
+    private static List<Workspace> lockOrder(Collection<Booking> bookings) {
+        Map<Workspace, Boolean> distinct = new IdentityHashMap<>();
+        for (Booking booking : bookings) {
+            distinct.put(booking.getWorkspace(), Boolean.TRUE);
+        }
+        List<Workspace> workspaces = new ArrayList<>(distinct.keySet());
+        workspaces.sort(Comparator.comparingInt(System::identityHashCode));
+        return workspaces;
+    }
+
+    private static void lockAll(List<Workspace> workspaces) {
+        if (hasHashTie(workspaces)) {
+            TIE_LOCK.lock();
+        }
+        for (Workspace workspace : workspaces) {
+            workspace.getLock().lock();
+        }
+    }
+
+    private static void unlockAll(List<Workspace> workspaces) {
+        for (int i = workspaces.size() - 1; i >= 0; i--) {
+            workspaces.get(i).getLock().unlock();
+        }
+        if (hasHashTie(workspaces)) {
+            TIE_LOCK.unlock();
+        }
+    }
+
+    private static boolean hasHashTie(List<Workspace> sorted) {
+        for (int i = 1; i < sorted.size(); i++) {
+            if (System.identityHashCode(sorted.get(i - 1)) == System.identityHashCode(sorted.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static BookingConflictException noCapacity(Booking booking) {
+        return new BookingConflictException("No capacity left for " + booking.getWorkspace().getName()
+                + " on " + booking.getDate() + " at " + booking.getStartTime() + ".");
+    }
+
+    private static BookingConflictException overlapping(Booking booking) {
+        return new BookingConflictException("Workspace " + booking.getWorkspace().getName()
+                + " is already booked on " + booking.getDate() + " between " + booking.getStartTime() + " and " + booking.getEndTime() + ".");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package com.andersen.service.booking;
+
+import com.andersen.entity.booking.Booking;
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Notified after a reservation or cancellation has been applied to its workspace. Runs on the
+ * caller's thread, so implementations must be quick and thread-safe.
+ */
+public interface ReservationListener {
+    void onReserved(Booking booking);
+    void onCancelled(Booking booking);
+
+    /**
+     * Every booking dated before {@code before} has been dropped; {@code bookings} lists them.
+     */
+    default void onDropped(LocalDate before, Collection<Booking> bookings) {
+    }
+}
@@ -0,0 +1,188 @@
+package com.andersen.service.booking;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Workspace;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reservations waiting for room on a workspace and day, highest priority first and then in arrival
+ * order. Each workspace's queues are guarded by that workspace's lock. Waiters are also indexed by
+ * booking id, so a customer can withdraw one, and counted per customer against a limit.
+ */
+final class Waitlist {
+    private static final Comparator<Waiter> ORDER = Comparator.comparingInt((Waiter waiter) -> -waiter.priority)
+            .thenComparingLong(waiter -> waiter.sequence);
+
+    private final Map<Workspace, NavigableMap<LocalDate, NavigableSet<Waiter>>> waiters = new ConcurrentHashMap<>();
+    private final Map<Long, Waiter> waitersByBookingId = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> queuedByCustomer = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final int limitPerCustomer;
+
+    Waitlist(int limitPerCustomer) {
+        this.limitPerCustomer = limitPerCustomer;
+    }
+
+    /**
+     * Queues the booking; the caller holds its workspace lock. Completing the returned future in any
+     * other way, such as cancelling it or a timeout, takes the booking off the queue.
+     *
+     * @return {@code null} if the customer already has as many bookings queued as allowed
+     */
+    CompletableFuture<Booking> add(Customer customer, Booking booking, int priority) {
+        AtomicInteger queued = queuedByCustomer.computeIfAbsent(customer.getUserName(), name -> new AtomicInteger());
+        int current;
+        do {
+            current = queued.get();
+            if (current >= limitPerCustomer) {
+                return null;
+            }
+        } while (!queued.compareAndSet(current, current + 1));
+
+        Waiter waiter = new Waiter(customer, booking, priority, sequence.incrementAndGet());
+        waitersByBookingId.put(booking.getId(), waiter);
+        waiters.computeIfAbsent(booking.getWorkspace(), workspace -> new TreeMap<>())
+                .computeIfAbsent(booking.getDate(), date -> new TreeSet<>(ORDER))
+                .add(waiter);
+        waiter.future.whenComplete((reserved, failure) -> {
+            if (failure != null) {
+                remove(waiter);
+            }
+        });
+        return waiter.future;
+    }
+
+    /**
+     * Cancels the customer's queued booking with that id.
+     *
+     * @return {@code false} if the customer has no such booking queued
+     */
+    boolean withdraw(Customer customer, long bookingId) {
+        Waiter waiter = waitersByBookingId.get(bookingId);
+        if (waiter == null || !waiter.customer.getUserName().equals(customer.getUserName())) {
+            return false;
+        }
+        return waiter.future.cancel(false);
+    }
+
+    /**
+     * The waiters for one workspace and day in serving order; the caller holds the workspace lock.
+     */
+    List<Waiter> get(Workspace workspace, LocalDate date) {
+        NavigableMap<LocalDate, NavigableSet<Waiter>> days = waiters.get(workspace);
+        NavigableSet<Waiter> day = days == null ? null : days.get(date);
+        return day == null ? Collections.emptyList() : new ArrayList<>(day);
+    }
+
+    /**
+     * Takes a waiter off its queue; the caller holds the workspace lock.
+     */
+    void removeLocked(Waiter waiter) {
+        Workspace workspace = waiter.booking.getWorkspace();
+        NavigableMap<LocalDate, NavigableSet<Waiter>> days = waiters.get(workspace);
+        if (days == null) {
+            return;
+        }
+        NavigableSet<Waiter> day = days.get(waiter.booking.getDate());
+        if (day == null || !day.remove(waiter)) {
+            return;
+        }
+        forget(waiter);
+        if (day.isEmpty()) {
+            days.remove(waiter.booking.getDate());
+            if (days.isEmpty()) {
+                waiters.remove(workspace);
+            }
+        }
+    }
+
+    /**
+     * Takes every waiter for the workspace off the queues.
+     */
+    List<Waiter> removeWorkspace(Workspace workspace) {
+        List<Waiter> removed = new ArrayList<>();
+        workspace.getLock().lock();
+        try {
+            NavigableMap<LocalDate, NavigableSet<Waiter>> days = waiters.remove(workspace);
+            if (days != null) {
+                days.values().forEach(removed::addAll);
+            }
+        } finally {
+            workspace.getLock().unlock();
+        }
+        removed.forEach(this::forget);
+        return removed;
+    }
+
+    /**
+     * Takes every waiter for a day before {@code date} off the queues.
+     */
+    List<Waiter> removeBefore(LocalDate date) {
+        List<Waiter> expired = new ArrayList<>();
+        for (Workspace workspace : List.copyOf(waiters.keySet())) {
+            workspace.getLock().lock();
+            try {
+                NavigableMap<LocalDate, NavigableSet<Waiter>> days = waiters.get(workspace);
+                if (days == null) {
+                    continue;
+                }
+                NavigableMap<LocalDate, NavigableSet<Waiter>> past = days.headMap(date, false);
+                for (NavigableSet<Waiter> day : past.values()) {
+                    day.forEach(this::forget);
+                    expired.addAll(day);
+                }
+                past.clear();
+                if (days.isEmpty()) {
+                    waiters.remove(workspace);
+                }
+            } finally {
+                workspace.getLock().unlock();
+            }
+        }
+        return expired;
+    }
+
+    private void forget(Waiter waiter) {
+        waitersByBookingId.remove(waiter.booking.getId(), waiter);
+        queuedByCustomer.get(waiter.customer.getUserName()).decrementAndGet();
+    }
+
+    private void remove(Waiter waiter) {
+        Workspace workspace = waiter.booking.getWorkspace();
+        workspace.getLock().lock();
+        try {
+            removeLocked(waiter);
+        } finally {
+            workspace.getLock().unlock();
+        }
+    }
+
+    static final class Waiter {
+        final Customer customer;
+        final Booking booking;
+        final int priority;
+        final long sequence;
+        final CompletableFuture<Booking> future = new CompletableFuture<>();
+
+        Waiter(Customer customer, Booking booking, int priority, long sequence) {
+            this.customer = customer;
+            this.booking = booking;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+}
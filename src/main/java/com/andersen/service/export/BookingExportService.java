@@ -0,0 +1,26 @@
+package com.andersen.service.export;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Streams every booking to files for downstream pipelines. Bookings are written as they are read
+ * from the live repository, so memory use does not depend on how many there are; bookings made or
+ * cancelled while an export runs may or may not be included.
+ */
+public interface BookingExportService {
+    /**
+     * Writes every booking, in id order, to one file that replaces {@code file} atomically.
+     *
+     * @return number of bookings written
+     */
+    long exportAll(Path file, ExportFormat format, boolean gzip) throws IOException;
+
+    /**
+     * Writes the bookings into {@code segments} files under {@code directory}, in parallel. Each
+     * workspace's bookings land in exactly one segment.
+     *
+     * @return number of bookings written
+     */
+    long exportByWorkspace(Path directory, ExportFormat format, boolean gzip, int segments) throws IOException;
+}
@@ -0,0 +1,294 @@
+package com.andersen.service.export;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.repository.booking.BookingRepository;
+import com.andersen.util.VirtualThreads;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Each output file is a chain of format writer, optional gzip and a {@link ChannelOutputStream}
+ * with a large direct buffer. Files are written next to their target, synced and then moved into
+ * place, so a crash never leaves a half-written export under the final name.
+ */
+public class BookingExportServiceImpl implements BookingExportService {
+    private static final int CHANNEL_BUFFER_SIZE = 1 << 20;
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    private static final int BATCH_SIZE = 1024;
+    private static final int QUEUED_BATCHES = 4;
+    private static final long HAND_OFF_WAIT_MILLIS = 100;
+    private static final String[] CSV_HEADER = {"id", "customer", "workspaceId", "workspace", "date", "startTime", "endTime"};
+
+    private final BookingRepository bookingRepository;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public BookingExportServiceImpl(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    @Override
+    public long exportAll(Path file, ExportFormat format, boolean gzip) throws IOException {
+        try {
+            return write(file, format, gzip, bookingRepository.streamBookings().iterator());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public long exportByWorkspace(Path directory, ExportFormat format, boolean gzip, int segments) throws IOException {
+        if (segments < 1) {
+            throw new IllegalArgumentException("At least one segment is required.");
+        }
+        Files.createDirectories(directory);
+        // Every writer needs its own thread: the partitioning reader blocks while any segment's queue is full
+        ExecutorService executor = VirtualThreads.newPerTaskExecutor("booking-export");
+        List<BlockingQueue<List<Booking>>> queues = new ArrayList<>(segments);
+        List<Future<Long>> results = new ArrayList<>(segments);
+        try {
+            for (int segment = 0; segment < segments; segment++) {
+                BlockingQueue<List<Booking>> queue = new ArrayBlockingQueue<>(QUEUED_BATCHES);
+                Path file = directory.resolve(String.format("bookings-%03d%s%s", segment, format.getExtension(),
+                        gzip ? ".gz" : ""));
+                queues.add(queue);
+                results.add(executor.submit(() -> write(file, format, gzip, new QueueIterator(queue))));
+            }
+            partition(queues, results);
+            long written = 0;
+            for (Future<Long> result : results) {
+                written += result.get();
+            }
+            return written;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Export failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Reads the stream once and hands each booking to its segment's writer in batches. Workspaces
+    // are assigned by id, so a workspace keeps its segment from one export to the next; the stream
+    // also covers archived bookings and removed workspaces. Stops early if a writer has failed.
+    private void partition(List<BlockingQueue<List<Booking>>> queues, List<Future<Long>> results)
+            throws InterruptedException, ExecutionException {
+        int segments = queues.size();
+        List<List<Booking>> batches = new ArrayList<>(segments);
+        for (int segment = 0; segment < segments; segment++) {
+            batches.add(new ArrayList<>(BATCH_SIZE));
+        }
+        Iterator<Booking> bookings = bookingRepository.streamBookings().iterator();
+        while (bookings.hasNext()) {
+            Booking booking = bookings.next();
+            int segment = Math.floorMod(booking.getWorkspace().getId(), segments);
+            List<Booking> batch = batches.get(segment);
+            batch.add(booking);
+            if (batch.size() == BATCH_SIZE) {
+                if (!hand(queues.get(segment), batch, results.get(segment))) {
+                    return;
+                }
+                batches.set(segment, new ArrayList<>(BATCH_SIZE));
+            }
+        }
+        for (int segment = 0; segment < segments; segment++) {
+            List<Booking> batch = batches.get(segment);
+            if (!batch.isEmpty() && !hand(queues.get(segment), batch, results.get(segment))) {
+                return;
+            }
+            if (!hand(queues.get(segment), List.of(), results.get(segment))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} if the writer has failed, after rethrowing its failure
+     */
+    private static boolean hand(BlockingQueue<List<Booking>> queue, List<Booking> batch, Future<Long> writer)
+            throws InterruptedException, ExecutionException {
+        while (!queue.offer(batch, HAND_OFF_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (writer.isDone()) {
+                writer.get();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long write(Path file, ExportFormat format, boolean gzip, Iterator<Booking> bookings) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        long written = 0;
+        try {
+            written = writeTemporary(temporary, format, gzip, bookings);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        return written;
+    }
+
+    private long writeTemporary(Path temporary, ExportFormat format, boolean gzip, Iterator<Booking> bookings)
+            throws IOException {
+        long written;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ChannelOutputStream channelStream = new ChannelOutputStream(channel, CHANNEL_BUFFER_SIZE);
+            GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(channelStream, GZIP_BUFFER_SIZE) : null;
+            OutputStream out = gzip ? gzipStream : channelStream;
+
+            if (format == ExportFormat.JSON_LINES) {
+                written = writeJsonLines(out, bookings);
+            } else {
+                written = writeCsv(out, bookings);
+            }
+            if (gzipStream != null) {
+                gzipStream.finish();
+            }
+            channelStream.sync();
+        }
+        return written;
+    }
+
+    private long writeJsonLines(OutputStream out, Iterator<Booking> bookings) throws IOException {
+        long written = 0;
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            while (bookings.hasNext()) {
+                Booking booking = bookings.next();
+                generator.writeStartObject();
+                generator.writeNumberField("id", booking.getId());
+                generator.writeStringField("customer", booking.getCustomer().getUserName());
+                generator.writeNumberField("workspaceId", booking.getWorkspace().getId());
+                generator.writeStringField("workspace", booking.getWorkspace().getName());
+                generator.writeStringField("date", booking.getDate().toString());
+                generator.writeStringField("startTime", booking.getStartTime().toString());
+                generator.writeStringField("endTime", booking.getEndTime().toString());
+                generator.writeEndObject();
+                written++;
+            }
+            if (written > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        return written;
+    }
+
+    private long writeCsv(OutputStream out, Iterator<Booking> bookings) throws IOException {
+        long written = 0;
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writeCsvRow(writer, CSV_HEADER);
+        String[] row = new String[CSV_HEADER.length];
+        while (bookings.hasNext()) {
+            Booking booking = bookings.next();
+            row[0] = Long.toString(booking.getId());
+            row[1] = booking.getCustomer().getUserName();
+            row[2] = Long.toString(booking.getWorkspace().getId());
+            row[3] = booking.getWorkspace().getName();
+            row[4] = booking.getDate().toString();
+            row[5] = booking.getStartTime().toString();
+            row[6] = booking.getEndTime().toString();
+            writeCsvRow(writer, row);
+            written++;
+        }
+        writer.flush();
+        return written;
+    }
+
+    // RFC 4180: quote fields holding a separator, quote or line break, doubling embedded quotes
+    private static void writeCsvRow(Writer writer, String[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String field = fields[i] == null ? "" : fields[i];
+            if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+                writer.write(field);
+                continue;
+            }
+            writer.write('"');
+            for (int c = 0; c < field.length(); c++) {
+                char ch = field.charAt(c);
+                if (ch == '"') {
+                    writer.write('"');
+                }
+                writer.write(ch);
+            }
+            writer.write('"');
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Reads the batches a segment's writer is handed, up to the empty batch that ends the segment.
+     */
+    private static final class QueueIterator implements Iterator<Booking> {
+        private final BlockingQueue<List<Booking>> queue;
+        private List<Booking> batch = List.of();
+        private int position;
+        private boolean ended;
+
+        QueueIterator(BlockingQueue<List<Booking>> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!ended && position == batch.size()) {
+                try {
+                    batch = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UncheckedIOException(new InterruptedIOException("Export interrupted."));
+                }
+                position = 0;
+                ended = batch.isEmpty();
+            }
+            return !ended;
+        }
+
+        @Override
+        public Booking next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return batch.get(position++);
+        }
+    }
+}
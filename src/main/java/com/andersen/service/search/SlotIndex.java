@@ -0,0 +1,210 @@
+package com.andersen.service.search;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.workspace.Workspace;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Occupancy bitmaps, one per workspace and day: {@value #SLOTS_PER_DAY} slots of
+ * {@value #SLOT_MINUTES} minutes packed into {@value #WORDS_PER_WORKSPACE} longs. A range query
+ * is one AND per word per workspace on the requested day only.
+ * <p>
+ * Workspaces get a dense ordinal and live in fixed-size chunks, shared by all days. A day's
+ * bitmaps are allocated when its first booking arrives, chunk by chunk; a day or chunk without
+ * bitmaps is entirely free. Growing only appends chunks, so a bitmap never moves and writers
+ * never race with a copy. A slot's bit is recomputed from the workspace's own bookings under the
+ * workspace lock, so the index cannot drift from the bookings however reservations and
+ * cancellations interleave.
+ */
+public class SlotIndex {
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    static final int WORDS_PER_WORKSPACE = (SLOTS_PER_DAY + 63) / 64;
+
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    private final Map<Workspace, Integer> ordinals = new ConcurrentHashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final NavigableMap<LocalDate, Day> days = new ConcurrentSkipListMap<>();
+    private volatile AtomicReferenceArray<Workspace>[] chunks = newChunks(0);
+    private int nextOrdinal;
+
+    public synchronized void register(Workspace workspace) {
+        if (ordinals.containsKey(workspace)) {
+            return;
+        }
+        int ordinal = freeOrdinals.isEmpty() ? nextOrdinal++ : freeOrdinals.pop();
+        int chunk = ordinal >>> CHUNK_BITS;
+        if (chunk >= chunks.length) {
+            AtomicReferenceArray<Workspace>[] grown = Arrays.copyOf(chunks, chunk + 1);
+            grown[chunk] = new AtomicReferenceArray<>(CHUNK_SIZE);
+            chunks = grown;
+        }
+        ordinals.put(workspace, ordinal);
+        for (LocalDate date : workspace.getBookingDates()) {
+            refresh(workspace, date, 0, SLOTS_PER_DAY);
+        }
+        // Published last, so queries never see the workspace before its bookings are indexed
+        chunks[chunk].set(ordinal & (CHUNK_SIZE - 1), workspace);
+    }
+
+    public synchronized void unregister(Workspace workspace) {
+        // Holding the workspace lock keeps a refresh in flight from writing into a reused ordinal
+        workspace.getLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(workspace);
+            if (ordinal == null) {
+                return;
+            }
+            chunks[ordinal >>> CHUNK_BITS].set(ordinal & (CHUNK_SIZE - 1), null);
+            for (Day day : days.values()) {
+                AtomicLongArray occupied = day.chunk(ordinal >>> CHUNK_BITS);
+                if (occupied != null) {
+                    int base = (ordinal & (CHUNK_SIZE - 1)) * WORDS_PER_WORKSPACE;
+                    for (int w = 0; w < WORDS_PER_WORKSPACE; w++) {
+                        occupied.set(base + w, 0L);
+                    }
+                }
+            }
+            freeOrdinals.push(ordinal);
+        } finally {
+            workspace.getLock().unlock();
+        }
+    }
+
+    /**
+     * Re-reads the slots covered by the booking from its workspace.
+     */
+    public void refresh(Booking booking) {
+        Workspace workspace = booking.getWorkspace();
+        if (!ordinals.containsKey(workspace)) {
+            register(workspace);
+            return;
+        }
+        refresh(workspace, booking.getDate(), firstSlot(booking.getStartTime()), endSlot(booking.getEndTime()));
+    }
+
+    /**
+     * Frees the bitmaps of every day before {@code date}.
+     */
+    public void dropBefore(LocalDate date) {
+        days.headMap(date, false).clear();
+    }
+
+    public List<Workspace> findFree(LocalDate date, LocalTime startTime, LocalTime endTime) {
+        long[] mask = mask(firstSlot(startTime), endSlot(endTime));
+        Day day = days.get(date);
+        AtomicReferenceArray<Workspace>[] current = chunks;
+        List<Workspace> free = new ArrayList<>();
+        for (int chunk = 0; chunk < current.length; chunk++) {
+            AtomicReferenceArray<Workspace> workspaces = current[chunk];
+            AtomicLongArray occupied = day == null ? null : day.chunk(chunk);
+            for (int offset = 0; offset < CHUNK_SIZE; offset++) {
+                Workspace workspace = workspaces.get(offset);
+                if (workspace != null && (occupied == null || isFree(occupied, offset * WORDS_PER_WORKSPACE, mask))) {
+                    free.add(workspace);
+                }
+            }
+        }
+        return free;
+    }
+
+    private static boolean isFree(AtomicLongArray occupied, int base, long[] mask) {
+        for (int w = 0; w < WORDS_PER_WORKSPACE; w++) {
+            if ((occupied.get(base + w) & mask[w]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void refresh(Workspace workspace, LocalDate date, int fromSlot, int toSlot) {
+        workspace.getLock().lock();
+        try {
+            Integer ordinal = ordinals.get(workspace);
+            if (ordinal == null) {
+                return; // Unregistered concurrently
+            }
+            AtomicLongArray occupied = days.computeIfAbsent(date, key -> new Day()).grow(ordinal >>> CHUNK_BITS);
+            int base = (ordinal & (CHUNK_SIZE - 1)) * WORDS_PER_WORKSPACE;
+            for (int slot = fromSlot; slot < toSlot; slot++) {
+                long bit = 1L << (slot & 63);
+                int index = base + (slot >>> 6);
+                long word = occupied.get(index);
+                occupied.set(index, workspace.isOverlapping(date, slotStart(slot), slotEnd(slot)) ? word | bit : word & ~bit);
+            }
+        } finally {
+            workspace.getLock().unlock();
+        }
+    }
+
+    private static long[] mask(int fromSlot, int toSlot) {
+        long[] mask = new long[WORDS_PER_WORKSPACE];
+        for (int slot = fromSlot; slot < toSlot; slot++) {
+            mask[slot >>> 6] |= 1L << (slot & 63);
+        }
+        return mask;
+    }
+
+    private static int firstSlot(LocalTime time) {
+        return time.toSecondOfDay() / (SLOT_MINUTES * 60);
+    }
+
+    // Exclusive; a partially covered slot counts as covered
+    private static int endSlot(LocalTime time) {
+        return Math.min(SLOTS_PER_DAY, (time.toSecondOfDay() + SLOT_MINUTES * 60 - 1) / (SLOT_MINUTES * 60));
+    }
+
+    private static LocalTime slotStart(int slot) {
+        return LocalTime.ofSecondOfDay((long) slot * SLOT_MINUTES * 60);
+    }
+
+    private static LocalTime slotEnd(int slot) {
+        return slot + 1 == SLOTS_PER_DAY ? LocalTime.MAX : slotStart(slot + 1);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static AtomicReferenceArray<Workspace>[] newChunks(int length) {
+        return new AtomicReferenceArray[length];
+    }
+
+    private static final class Day {
+        private volatile AtomicLongArray[] chunks = new AtomicLongArray[0];
+
+        AtomicLongArray chunk(int chunk) {
+            AtomicLongArray[] current = chunks;
+            return chunk < current.length ? current[chunk] : null;
+        }
+
+        AtomicLongArray grow(int chunk) {
+            AtomicLongArray occupied = chunk(chunk);
+            if (occupied != null) {
+                return occupied;
+            }
+            synchronized (this) {
+                if (chunk < chunks.length && chunks[chunk] != null) {
+                    return chunks[chunk];
+                }
+                // Filled in before publishing, since array elements are not volatile
+                AtomicLongArray[] grown = Arrays.copyOf(chunks, Math.max(chunks.length, chunk + 1));
+                grown[chunk] = new AtomicLongArray(CHUNK_SIZE * WORDS_PER_WORKSPACE);
+                chunks = grown;
+                return grown[chunk];
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.andersen.service.search;
+
+import com.andersen.entity.workspace.Workspace;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public interface WorkspaceSearchService {
+    /**
+     * Finds the workspaces with no booking touching any part of {@code [startTime, endTime)} on {@code date}.
+     * Results are aligned to {@link SlotIndex#SLOT_MINUTES}-minute slots, so a workspace booked until
+     * 10:05 is not offered from 10:10.
+     */
+    List<Workspace> findFreeWorkspaces(LocalDate date, LocalTime startTime, LocalTime endTime);
+}
@@ -0,0 +1,61 @@
+package com.andersen.service.search;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.service.booking.BookingService;
+import com.andersen.service.booking.ReservationListener;
+import com.andersen.service.workspace.CatalogListener;
+import com.andersen.service.workspace.WorkspaceService;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+
+public class WorkspaceSearchServiceImpl implements WorkspaceSearchService, ReservationListener, CatalogListener {
+    private final SlotIndex slotIndex = new SlotIndex();
+
+    /**
+     * Indexes the current catalog and its bookings, then follows catalog and reservation changes.
+     */
+    public WorkspaceSearchServiceImpl(WorkspaceService workspaceService, BookingService bookingService) {
+        workspaceService.addListener(this);
+        bookingService.addListener(this);
+        for (Workspace workspace : workspaceService.getAllWorkspaces()) {
+            slotIndex.register(workspace);
+        }
+    }
+
+    @Override
+    public List<Workspace> findFreeWorkspaces(LocalDate date, LocalTime startTime, LocalTime endTime) {
+        if (!endTime.isAfter(startTime)) {
+            throw new IllegalArgumentException("End time must be after start time.");
+        }
+        return slotIndex.findFree(date, startTime, endTime);
+    }
+
+    @Override
+    public void onReserved(Booking booking) {
+        slotIndex.refresh(booking);
+    }
+
+    @Override
+    public void onCancelled(Booking booking) {
+        slotIndex.refresh(booking);
+    }
+
+    @Override
+    public void onDropped(LocalDate before, Collection<Booking> bookings) {
+        slotIndex.dropBefore(before);
+    }
+
+    @Override
+    public void onWorkspaceAdded(Workspace workspace) {
+        slotIndex.register(workspace);
+    }
+
+    @Override
+    public void onWorkspaceRemoved(Workspace workspace) {
+        slotIndex.unregister(workspace);
+    }
+}
@@ -0,0 +1,27 @@
+package com.andersen.service.stats;
+
+import java.time.LocalDate;
+
+public final class DailyOccupancy {
+    private final LocalDate date;
+    private final long bookings;
+    private final long bookedMinutes;
+
+    public DailyOccupancy(LocalDate date, long bookings, long bookedMinutes) {
+        this.date = date;
+        this.bookings = bookings;
+        this.bookedMinutes = bookedMinutes;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public long getBookings() {
+        return bookings;
+    }
+
+    public long getBookedMinutes() {
+        return bookedMinutes;
+    }
+}
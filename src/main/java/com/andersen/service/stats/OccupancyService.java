@@ -0,0 +1,25 @@
+package com.andersen.service.stats;
+
+import java.util.List;
+
+/**
+ * Utilization figures kept up to date as reservations come and go, so reading them costs time
+ * proportional to the number of workspaces rather than the number of bookings. Past days stay in
+ * the figures after their bookings are archived.
+ */
+public interface OccupancyService {
+    /**
+     * Current occupancy of every workspace over all booked days, in catalog order.
+     */
+    List<WorkspaceOccupancy> getWorkspaceOccupancy();
+
+    /**
+     * Booked minutes per hour of the day, summed over all workspaces and days.
+     */
+    long[] getBookedMinutesByHour();
+
+    /**
+     * Bookings and booked minutes per booked day, oldest day first.
+     */
+    List<DailyOccupancy> getDailyOccupancy();
+}
@@ -0,0 +1,215 @@
+package com.andersen.service.stats;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.event.EventPipeline;
+import com.andersen.event.ListenerEventHandler;
+import com.andersen.repository.Page;
+import com.andersen.service.booking.BookingService;
+import com.andersen.service.booking.ReservationListener;
+import com.andersen.service.workspace.CatalogListener;
+import com.andersen.service.workspace.WorkspaceService;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Materialized occupancy view. Each reservation adds its minutes to the hour-of-day counters of
+ * its workspace and to the counters of its day, and each cancellation takes them away again. The
+ * per-day counters, which every thread booking that day hits, are {@link LongAdder}s. Bookings
+ * dropped from memory are still readable from the archive, so their days stay counted; only
+ * removing a workspace takes its history out of the reports. Reports only sum the counters.
+ */
+public class OccupancyServiceImpl implements OccupancyService, ReservationListener, CatalogListener {
+    private static final int HOURS_PER_DAY = 24;
+    private static final int MINUTES_PER_HOUR = 60;
+    private static final int SEED_PAGE_SIZE = 1000;
+
+    private final WorkspaceService workspaceService;
+    private final Map<Workspace, Counters> counters = new ConcurrentHashMap<>();
+    private final NavigableMap<LocalDate, DayCounters> days = new ConcurrentSkipListMap<>();
+
+    /**
+     * Counts the bookings already made on the catalog's workspaces, archived ones included, then
+     * follows catalog and reservation changes. Meant to be built at startup, before reservations
+     * start flowing.
+     */
+    public OccupancyServiceImpl(WorkspaceService workspaceService, BookingService bookingService) {
+        this.workspaceService = workspaceService;
+        seed(bookingService);
+        workspaceService.addListener(this);
+        bookingService.addListener(this);
+    }
+
+    /**
+     * Like {@link #OccupancyServiceImpl(WorkspaceService, BookingService)}, but follows the changes
+     * as an event pipeline handler, off the reserving threads. Must be built before the pipeline
+     * starts.
+     */
+    public OccupancyServiceImpl(WorkspaceService workspaceService, BookingService bookingService, EventPipeline events) {
+        this.workspaceService = workspaceService;
+        seed(bookingService);
+        events.addHandler("statistics", new ListenerEventHandler(this, this));
+    }
+
+    // Archived bookings are read back from disk once, here
+    private void seed(BookingService bookingService) {
+        for (Workspace workspace : workspaceService.getAllWorkspaces()) {
+            counters.put(workspace, new Counters());
+        }
+        long after = Page.FIRST;
+        Page<Booking> page;
+        do {
+            page = bookingService.getAllBookings(after, SEED_PAGE_SIZE);
+            for (Booking booking : page.getItems()) {
+                // An archived booking of a removed workspace comes back without one
+                Counters seeded = booking.getWorkspace() != null ? counters.get(booking.getWorkspace()) : null;
+                if (seeded != null) {
+                    seeded.add(booking.getDate(), booking.getStartTime(), booking.getEndTime(), 1);
+                    day(booking.getDate()).add(booking.getStartTime(), booking.getEndTime(), 1);
+                }
+            }
+            after = page.getNextCursor();
+        } while (page.hasNext());
+    }
+
+    @Override
+    public List<WorkspaceOccupancy> getWorkspaceOccupancy() {
+        List<WorkspaceOccupancy> occupancy = new ArrayList<>();
+        int bookedDays = (int) days.values().stream().filter(day -> day.bookings.sum() > 0).count();
+        for (Workspace workspace : workspaceService.getAllWorkspaces()) {
+            Counters current = counters.get(workspace);
+            if (current != null) {
+                occupancy.add(new WorkspaceOccupancy(workspace, current.bookings.get(), current.minutesByHour(), bookedDays));
+            }
+        }
+        return occupancy;
+    }
+
+    @Override
+    public long[] getBookedMinutesByHour() {
+        long[] total = new long[HOURS_PER_DAY];
+        for (Counters current : counters.values()) {
+            for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+                total[hour] += current.minutesByHour.get(hour);
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public List<DailyOccupancy> getDailyOccupancy() {
+        List<DailyOccupancy> occupancy = new ArrayList<>(days.size());
+        days.forEach((date, day) -> {
+            long bookings = day.bookings.sum();
+            if (bookings > 0) {
+                occupancy.add(new DailyOccupancy(date, bookings, day.bookedMinutes.sum()));
+            }
+        });
+        return occupancy;
+    }
+
+    @Override
+    public void onReserved(Booking booking) {
+        update(booking, 1);
+    }
+
+    @Override
+    public void onCancelled(Booking booking) {
+        update(booking, -1);
+    }
+
+    // A workspace joins the catalog empty; its first reservation may even be counted before this
+    @Override
+    public void onWorkspaceAdded(Workspace workspace) {
+        counters.putIfAbsent(workspace, new Counters());
+    }
+
+    @Override
+    public void onWorkspaceRemoved(Workspace workspace) {
+        Counters removed = counters.remove(workspace);
+        if (removed == null) {
+            return;
+        }
+        removed.days.forEach((date, day) -> day(date).subtract(day));
+    }
+
+    private void update(Booking booking, int sign) {
+        Workspace workspace = booking.getWorkspace();
+        Counters current = counters.get(workspace);
+        if (current == null) {
+            // Either counted before onWorkspaceAdded, or a late event for a removed workspace
+            if (workspaceService.findById(workspace.getId()).orElse(null) != workspace) {
+                return;
+            }
+            current = counters.computeIfAbsent(workspace, key -> new Counters());
+        }
+        current.add(booking.getDate(), booking.getStartTime(), booking.getEndTime(), sign);
+        day(booking.getDate()).add(booking.getStartTime(), booking.getEndTime(), sign);
+    }
+
+    private DayCounters day(LocalDate date) {
+        return days.computeIfAbsent(date, key -> new DayCounters());
+    }
+
+    private static int startMinute(LocalTime startTime) {
+        return startTime.toSecondOfDay() / 60;
+    }
+
+    // Exclusive; a partial minute counts as booked
+    private static int endMinute(LocalTime endTime) {
+        return (endTime.toSecondOfDay() + 59) / 60;
+    }
+
+    private static final class Counters {
+        final AtomicLong bookings = new AtomicLong();
+        final AtomicLongArray minutesByHour = new AtomicLongArray(HOURS_PER_DAY);
+        // This workspace's share of the day counters, taken back out when it leaves the catalog
+        final Map<LocalDate, DayCounters> days = new ConcurrentHashMap<>();
+
+        // Splits the booking's minutes over the hours it touches; sign is 1 to add, -1 to remove
+        void add(LocalDate date, LocalTime startTime, LocalTime endTime, int sign) {
+            days.computeIfAbsent(date, key -> new DayCounters()).add(startTime, endTime, sign);
+            bookings.addAndGet(sign);
+            int start = startMinute(startTime);
+            int end = endMinute(endTime);
+            for (int hour = start / MINUTES_PER_HOUR; hour < HOURS_PER_DAY && hour * MINUTES_PER_HOUR < end; hour++) {
+                int from = Math.max(start, hour * MINUTES_PER_HOUR);
+                int to = Math.min(end, (hour + 1) * MINUTES_PER_HOUR);
+                minutesByHour.addAndGet(hour, (long) sign * (to - from));
+            }
+        }
+
+        long[] minutesByHour() {
+            long[] copy = new long[HOURS_PER_DAY];
+            for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+                copy[hour] = minutesByHour.get(hour);
+            }
+            return copy;
+        }
+    }
+
+    private static final class DayCounters {
+        final LongAdder bookings = new LongAdder();
+        final LongAdder bookedMinutes = new LongAdder();
+
+        void add(LocalTime startTime, LocalTime endTime, int sign) {
+            bookings.add(sign);
+            bookedMinutes.add((long) sign * (endMinute(endTime) - startMinute(startTime)));
+        }
+
+        void subtract(DayCounters other) {
+            bookings.add(-other.bookings.sum());
+            bookedMinutes.add(-other.bookedMinutes.sum());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.andersen.service.stats;
+
+import com.andersen.entity.workspace.Workspace;
+
+public final class WorkspaceOccupancy {
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final Workspace workspace;
+    private final long bookings;
+    private final long[] bookedMinutesByHour;
+    private final int days;
+
+    public WorkspaceOccupancy(Workspace workspace, long bookings, long[] bookedMinutesByHour, int days) {
+        this.workspace = workspace;
+        this.bookings = bookings;
+        this.bookedMinutesByHour = bookedMinutesByHour;
+        this.days = days;
+    }
+
+    public Workspace getWorkspace() {
+        return workspace;
+    }
+
+    public long getBookings() {
+        return bookings;
+    }
+
+    public long[] getBookedMinutesByHour() {
+        return bookedMinutesByHour.clone();
+    }
+
+    public long getBookedMinutes() {
+        long total = 0;
+        for (long minutes : bookedMinutesByHour) {
+            total += minutes;
+        }
+        return total;
+    }
+
+    /**
+     * Number of days the utilization is measured over: every day with at least one booking anywhere.
+     */
+    public int getDays() {
+        return days;
+    }
+
+    /**
+     * Share of the measured days that is booked, between 0 and 1.
+     */
+    public double getUtilization() {
+        return days == 0 ? 0 : (double) getBookedMinutes() / ((long) days * MINUTES_PER_DAY);
+    }
+}
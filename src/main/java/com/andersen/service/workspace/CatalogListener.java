@@ -0,0 +1,11 @@
+package com.andersen.service.workspace;
+
+import com.andersen.entity.workspace.Workspace;
+
+/**
+ * Notified after a workspace has been added to or removed from the catalog.
+ */
+public interface CatalogListener {
+    void onWorkspaceAdded(Workspace workspace);
+    void onWorkspaceRemoved(Workspace workspace);
+}
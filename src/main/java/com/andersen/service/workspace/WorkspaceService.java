@@ -2,11 +2,31 @@ package com.andersen.service.workspace;
 
 import com.andersen.entity.workspace.Workspace;
 import com.andersen.exception.WorkspaceNotFoundException;
+import com.andersen.repository.Page;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface WorkspaceService {
     void addWorkspace(Workspace workspace) throws WorkspaceNotFoundException;
     void removeWorkspace(int index) throws WorkspaceNotFoundException;
+    Optional<Workspace> findById(long id);
+    void removeById(long id) throws WorkspaceNotFoundException;
+
+    /**
+     * @return the current catalog as an immutable list shared between callers
+     */
     List<Workspace> getAllWorkspaces();
+
+    /**
+     * Increases with every catalog change, so callers can cache what they derive from the catalog.
+     */
+    long getCatalogVersion();
+
+    /**
+     * Workspaces with an id greater than {@code afterId}, in id order; start with {@link Page#FIRST}.
+     */
+    Page<Workspace> getWorkspaces(long afterId, int limit);
+
+    void addListener(CatalogListener listener);
 }
\ No newline at end of file
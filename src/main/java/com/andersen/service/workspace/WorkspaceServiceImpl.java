@@ -2,13 +2,17 @@ package com.andersen.service.workspace;
 
 import com.andersen.entity.workspace.Workspace;
 import com.andersen.exception.WorkspaceNotFoundException;
-import com.andersen.repository.workspace.WorkspaceRepositoryImpl;
+import com.andersen.repository.Page;
+import com.andersen.repository.workspace.WorkspaceRepository;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class WorkspaceServiceImpl implements WorkspaceService {
-    private final WorkspaceRepositoryImpl workspaceRepository;
+    private final WorkspaceRepository workspaceRepository;
+    private final List<CatalogListener> listeners = new CopyOnWriteArrayList<>();
 
-    public WorkspaceServiceImpl(WorkspaceRepositoryImpl workspaceRepository) throws WorkspaceNotFoundException {
+    public WorkspaceServiceImpl(WorkspaceRepository workspaceRepository) throws WorkspaceNotFoundException {
         this.workspaceRepository = workspaceRepository;
         this.workspaceRepository.loadWorkspacesFromFile(); // Load workspaces during initialization
     }
@@ -18,8 +22,10 @@ public class WorkspaceServiceImpl implements WorkspaceService {
         if (workspace == null) {
             throw new IllegalArgumentException("Workspace cannot be null.");
         }
-        workspaceRepository.addWorkspace(workspace);
-        workspaceRepository.saveWorkspacesToFile(); // Save after adding
+        workspaceRepository.addWorkspace(workspace); // Appended to the workspace log
+        for (CatalogListener listener : listeners) {
+            listener.onWorkspaceAdded(workspace);
+        }
     }
 
     @Override
@@ -28,12 +34,44 @@ public class WorkspaceServiceImpl implements WorkspaceService {
         if (index < 0 || index >= workspaces.size()) {
             throw new WorkspaceNotFoundException("Workspace not found.");
         }
-        workspaceRepository.removeWorkspace(workspaces.get(index));
-        workspaceRepository.saveWorkspacesToFile(); // Save after removing
+        Workspace workspace = workspaces.get(index);
+        workspaceRepository.removeWorkspace(workspace); // Appended to the workspace log
+        for (CatalogListener listener : listeners) {
+            listener.onWorkspaceRemoved(workspace);
+        }
+    }
+
+    @Override
+    public Optional<Workspace> findById(long id) {
+        return workspaceRepository.findById(id);
+    }
+
+    @Override
+    public void removeById(long id) throws WorkspaceNotFoundException {
+        Workspace workspace = workspaceRepository.removeById(id)
+                .orElseThrow(() -> new WorkspaceNotFoundException("Workspace not found."));
+        for (CatalogListener listener : listeners) {
+            listener.onWorkspaceRemoved(workspace);
+        }
     }
 
     @Override
     public List<Workspace> getAllWorkspaces() {
         return workspaceRepository.getAllWorkspaces();
     }
-}
\ No newline at end of file
+
+    @Override
+    public long getCatalogVersion() {
+        return workspaceRepository.getVersion();
+    }
+
+    @Override
+    public Page<Workspace> getWorkspaces(long afterId, int limit) {
+        return workspaceRepository.findPage(afterId, limit);
+    }
+
+    @Override
+    public void addListener(CatalogListener listener) {
+        listeners.add(listener);
+    }
+}
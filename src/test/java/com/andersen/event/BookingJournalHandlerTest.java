@@ -0,0 +1,89 @@
+package com.andersen.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.repository.booking.BookingRepository;
+import com.andersen.repository.booking.DurableBookingRepository;
+import com.andersen.repository.booking.IndexedBookingRepository;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BookingJournalHandlerTest {
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+    @TempDir
+    Path directory;
+
+    private Workspace desk;
+    private final Customer alice = new Customer("alice", "secret");
+
+    @Test
+    void haltedJournalHandsJournalingBackToTheRepository() throws Exception {
+        long[] poisoned = {-1};
+        IndexedBookingRepository live = new IndexedBookingRepository() {
+            @Override
+            public Optional<Booking> findById(long id) {
+                if (id == poisoned[0]) {
+                    throw new IllegalStateException("Corrupt index");
+                }
+                return super.findById(id);
+            }
+        };
+        long failedId;
+        long laterId;
+        try (DurableBookingRepository repository = open(live)) {
+            repository.load();
+            EventPipeline pipeline = new EventPipeline(16);
+            pipeline.addHandler("journal", new BookingJournalHandler(repository));
+            repository.deferJournal();
+            pipeline.start();
+
+            Booking failed = booking(repository, 8);
+            failedId = failed.getId();
+            poisoned[0] = failedId;
+            repository.addBooking(failed);
+            pipeline.onReserved(failed);
+            // The halt completes before the failed event is released
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (pipeline.getBacklog() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(0, pipeline.getBacklog());
+
+            // Dropped by the halted pipeline, so only the repository itself can save it
+            Booking later = booking(repository, 9);
+            laterId = later.getId();
+            repository.addBooking(later);
+            pipeline.onReserved(later);
+            pipeline.close();
+        }
+
+        try (DurableBookingRepository repository = open(new IndexedBookingRepository())) {
+            assertEquals(2, repository.load());
+            assertTrue(repository.findById(failedId).isPresent());
+            assertTrue(repository.findById(laterId).isPresent());
+        }
+    }
+
+    // Every open stands for a restart, with a freshly loaded catalog
+    private DurableBookingRepository open(BookingRepository live) throws IOException {
+        desk = new Workspace("Desk", "By the window");
+        desk.setId(1);
+        return new DurableBookingRepository(directory, live, false,
+                id -> id == desk.getId() ? desk : null, name -> null, userName -> alice);
+    }
+
+    private Booking booking(BookingRepository repository, int hour) {
+        return new Booking(repository.generateId(), alice, desk, DAY, LocalTime.of(hour, 0), LocalTime.of(hour + 1, 0));
+    }
+}
@@ -0,0 +1,158 @@
+package com.andersen.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Workspace;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class EventPipelineTest {
+    private static final int PRODUCERS = 4;
+    private static final int EVENTS_PER_PRODUCER = 100_000;
+
+    private final Customer customer = new Customer("alice", "secret");
+    private final Workspace desk = new Workspace("Desk", "By the window");
+
+    @Test
+    void everyHandlerSeesEveryEventInPublicationOrder() throws Exception {
+        // Much smaller than the number of events, so producers lap the ring and wait on the handlers
+        EventPipeline pipeline = new EventPipeline(1024);
+        OrderCheckingHandler fast = new OrderCheckingHandler();
+        OrderCheckingHandler slow = new OrderCheckingHandler() {
+            @Override
+            public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+                if ((sequence & 1023) == 0) {
+                    Thread.yield();
+                }
+                super.onEvent(event, sequence, endOfBatch);
+            }
+        };
+        pipeline.addHandler("fast", fast);
+        pipeline.addHandler("slow", slow);
+        pipeline.start();
+
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int n = 0; n < EVENTS_PER_PRODUCER; n++) {
+                    pipeline.onReserved(booking((long) producer << 32 | n));
+                }
+            });
+            thread.start();
+            producers.add(thread);
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        pipeline.close();
+
+        for (OrderCheckingHandler handler : List.of(fast, slow)) {
+            assertNull(handler.failure, handler.failure);
+            assertEquals(PRODUCERS * EVENTS_PER_PRODUCER, handler.handled);
+        }
+        assertEquals(0, pipeline.getBacklog());
+    }
+
+    @Test
+    void failedEventIsRetriedRatherThanSkipped() throws Exception {
+        EventPipeline pipeline = new EventPipeline(16);
+        List<Long> seen = new ArrayList<>();
+        pipeline.addHandler("flaky", new EventHandler() {
+            private int failures;
+
+            @Override
+            public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+                if (sequence == 3 && failures++ < 2) {
+                    throw new UncheckedIOException(new IOException("Disk full"));
+                }
+                seen.add(event.getBooking().getId());
+            }
+
+            @Override
+            public FailureAction onFailure(DomainEvent event, long sequence, Exception failure, int attempts) {
+                return FailureAction.RETRY;
+            }
+        });
+        pipeline.start();
+        for (long id = 0; id < 40; id++) {
+            pipeline.onReserved(booking(id));
+        }
+        pipeline.close();
+
+        List<Long> expected = new ArrayList<>();
+        for (long id = 0; id < 40; id++) {
+            expected.add(id);
+        }
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void haltedHandlerClosesThePipelineWithoutBlockingProducers() throws Exception {
+        EventPipeline pipeline = new EventPipeline(4);
+        pipeline.addHandler("broken", new EventHandler() {
+            @Override
+            public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+                throw new IllegalStateException("Broken handler");
+            }
+
+            @Override
+            public FailureAction onFailure(DomainEvent event, long sequence, Exception failure, int attempts) {
+                return FailureAction.HALT;
+            }
+        });
+        pipeline.start();
+        // Several laps of the ring; this would hang if the halted handler stopped consuming
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (long id = 0; id < 64; id++) {
+                pipeline.onReserved(booking(id));
+            }
+        });
+        pipeline.close();
+    }
+
+    private Booking booking(long id) {
+        return new Booking(id, customer, desk, LocalDate.now(), LocalTime.of(9, 0), LocalTime.of(10, 0));
+    }
+
+    // Sequences must be gapless and each producer's events must keep their order
+    private static class OrderCheckingHandler implements EventHandler {
+        private final long[] lastByProducer = new long[PRODUCERS];
+        private long expectedSequence;
+        volatile int handled;
+        volatile String failure;
+
+        OrderCheckingHandler() {
+            Arrays.fill(lastByProducer, -1);
+        }
+
+        @Override
+        public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+            if (failure != null) {
+                return;
+            }
+            long id = event.getBooking().getId();
+            int producer = (int) (id >>> 32);
+            long n = id & 0xffffffffL;
+            if (sequence != expectedSequence) {
+                failure = "Expected sequence " + expectedSequence + " but got " + sequence;
+            } else if (n <= lastByProducer[producer]) {
+                failure = "Producer " + producer + " event " + n + " arrived after " + lastByProducer[producer];
+            }
+            lastByProducer[producer] = n;
+            expectedSequence++;
+            handled++;
+        }
+    }
+}
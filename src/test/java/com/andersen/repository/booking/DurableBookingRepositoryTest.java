@@ -0,0 +1,169 @@
+package com.andersen.repository.booking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Workspace;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DurableBookingRepositoryTest {
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+    @TempDir
+    Path directory;
+
+    private Workspace desk;
+    private Workspace twin;
+    private final Customer alice = new Customer("alice", "secret");
+
+    @Test
+    void replaysDeltasWrittenAfterTheSnapshot() throws IOException {
+        try (DurableBookingRepository repository = open()) {
+            repository.load();
+            repository.addBooking(booking(repository, 8));
+            repository.addBooking(booking(repository, 9));
+            repository.snapshot();
+            Booking cancelled = booking(repository, 10);
+            repository.addBooking(cancelled);
+            repository.removeBooking(cancelled);
+            repository.addBooking(booking(repository, 11));
+        }
+
+        try (DurableBookingRepository repository = open()) {
+            assertEquals(3, repository.load());
+            assertEquals(3, repository.getAllBookings().size());
+        }
+    }
+
+    @Test
+    void tornDeltaTailIsCutOffAndLaterDeltasSurvive() throws IOException {
+        long keptId;
+        try (DurableBookingRepository repository = open()) {
+            repository.load();
+            repository.addBooking(booking(repository, 8));
+            Booking kept = booking(repository, 9);
+            repository.addBooking(kept);
+            keptId = kept.getId();
+        }
+        // A crash in the middle of writing the next record
+        Files.write(delta(), "{\"id\":42,\"customer\":\"al".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        long appendedId;
+        try (DurableBookingRepository repository = open()) {
+            assertEquals(2, repository.load());
+            assertTrue(repository.findById(keptId).isPresent());
+            Booking appended = booking(repository, 10);
+            repository.addBooking(appended);
+            appendedId = appended.getId();
+        }
+
+        try (DurableBookingRepository repository = open()) {
+            assertEquals(3, repository.load());
+            assertTrue(repository.findById(appendedId).isPresent());
+        }
+    }
+
+    @Test
+    void droppedDaysStayDroppedAfterReplay() throws IOException {
+        try (DurableBookingRepository repository = open()) {
+            repository.load();
+            repository.addBooking(new Booking(repository.generateId(), alice, desk, DAY.minusDays(3),
+                    LocalTime.of(8, 0), LocalTime.of(9, 0)));
+            repository.addBooking(booking(repository, 9));
+            assertEquals(1, repository.removeBookingsBefore(DAY.minusDays(1)).size());
+        }
+
+        try (DurableBookingRepository repository = open()) {
+            assertEquals(1, repository.load());
+        }
+    }
+
+    @Test
+    void failedSnapshotKeepsTheDeltasItRotatedOut() throws IOException {
+        Path temporary = directory.resolve("bookings.snapshot.jsonl.tmp");
+        try (DurableBookingRepository repository = open()) {
+            repository.load();
+            repository.addBooking(booking(repository, 8));
+            Files.createDirectory(temporary);
+            assertThrows(IOException.class, repository::snapshot);
+            repository.addBooking(booking(repository, 9));
+        }
+
+        try (DurableBookingRepository repository = open()) {
+            assertEquals(2, repository.load());
+            repository.addBooking(booking(repository, 10));
+            assertThrows(IOException.class, repository::snapshot);
+            Files.delete(temporary);
+            repository.addBooking(booking(repository, 11));
+            repository.snapshot();
+            repository.addBooking(booking(repository, 12));
+        }
+
+        assertFalse(Files.exists(directory.resolve("bookings.delta.jsonl.previous")));
+        try (DurableBookingRepository repository = open()) {
+            assertEquals(5, repository.load());
+        }
+    }
+
+    @Test
+    void bookingsComeBackOnTheWorkspaceWithTheirId() throws IOException {
+        long onTwinId;
+        try (DurableBookingRepository repository = open()) {
+            repository.load();
+            repository.addBooking(booking(repository, 8));
+            Booking onTwin = new Booking(repository.generateId(), alice, twin, DAY, LocalTime.of(8, 0), LocalTime.of(9, 0));
+            repository.addBooking(onTwin);
+            onTwinId = onTwin.getId();
+        }
+
+        try (DurableBookingRepository repository = open()) {
+            assertEquals(2, repository.load());
+            assertSame(twin, repository.findById(onTwinId).orElseThrow().getWorkspace());
+            assertEquals(1, twin.getBookedSlots().size());
+        }
+    }
+
+    @Test
+    void legacyRecordsResolveTheirWorkspaceByName() throws IOException {
+        Files.writeString(delta(), "{\"id\":7,\"customer\":\"alice\",\"workspace\":\"Desk\",\"date\":\"" + DAY
+                + "\",\"start\":\"08:00\",\"end\":\"09:00\"}\n");
+
+        try (DurableBookingRepository repository = open()) {
+            assertEquals(1, repository.load());
+            assertSame(desk, repository.findById(7).orElseThrow().getWorkspace());
+        }
+    }
+
+    // Every open stands for a restart, with a freshly loaded catalog holding two workspaces of the same name
+    private DurableBookingRepository open() throws IOException {
+        desk = new Workspace("Desk", "By the window");
+        desk.setId(1);
+        twin = new Workspace("Desk", "By the door");
+        twin.setId(2);
+        Map<Long, Workspace> byId = Map.of(desk.getId(), desk, twin.getId(), twin);
+        return new DurableBookingRepository(directory, new IndexedBookingRepository(), false,
+                byId::get, name -> name.equals(desk.getName()) ? desk : null, userName -> alice);
+    }
+
+    private Booking booking(BookingRepository repository, int hour) {
+        return new Booking(repository.generateId(), alice, desk, DAY, LocalTime.of(hour, 0), LocalTime.of(hour + 1, 0));
+    }
+
+    private Path delta() {
+        return directory.resolve("bookings.delta.jsonl");
+    }
+}
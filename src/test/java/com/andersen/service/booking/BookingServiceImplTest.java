@@ -0,0 +1,208 @@
+package com.andersen.service.booking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.andersen.entity.booking.Booking;
+import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Availability;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.exception.BookingConflictException;
+import com.andersen.repository.booking.IndexedBookingRepository;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BookingServiceImplTest {
+    private static final int THREADS = 16;
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+    private final Customer alice = new Customer("alice", "secret");
+    private final Customer bob = new Customer("bob", "secret");
+    private IndexedBookingRepository repository;
+    private BookingServiceImpl service;
+    private Workspace desk;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        repository = new IndexedBookingRepository();
+        service = new BookingServiceImpl(repository);
+        desk = new Workspace("Desk", "By the window");
+        desk.setId(1);
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void concurrentReservationsNeverOverlap() throws Exception {
+        AtomicInteger reserved = new AtomicInteger();
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 500; i++) {
+                LocalTime start = LocalTime.MIDNIGHT.plusMinutes(random.nextInt(0, 22 * 60));
+                Customer customer = random.nextBoolean() ? alice : bob;
+                Booking booking = service.createBooking(customer, desk, DAY, start,
+                        start.plusMinutes(random.nextInt(15, 120)));
+                try {
+                    service.makeReservation(customer, booking);
+                    reserved.incrementAndGet();
+                } catch (BookingConflictException e) {
+                    // Lost to an overlapping booking
+                }
+            }
+            return null;
+        });
+
+        List<Booking> bookings = new ArrayList<>(repository.findByDate(DAY));
+        assertEquals(reserved.get(), bookings.size());
+        assertEquals(bookings.size(), desk.getBookedSlots(DAY).size());
+        bookings.sort(Comparator.comparing(Booking::getStartTime));
+        for (int i = 1; i < bookings.size(); i++) {
+            assertFalse(bookings.get(i).getStartTime().isBefore(bookings.get(i - 1).getEndTime()),
+                    "Overlap between " + bookings.get(i - 1).getId() + " and " + bookings.get(i).getId());
+        }
+    }
+
+    @Test
+    void lastSeatGoesToExactlyOneCaller() throws Exception {
+        Availability slot = new Availability(DAY, LocalTime.of(9, 0), 1, 1);
+        desk.addAvailability(slot);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        runConcurrently(() -> {
+            Booking booking = service.createBooking(alice, desk, DAY, LocalTime.of(9, 0), LocalTime.of(10, 0));
+            try {
+                service.makeReservation(alice, booking);
+                reserved.incrementAndGet();
+            } catch (BookingConflictException e) {
+                rejected.incrementAndGet();
+            }
+            return null;
+        });
+
+        assertEquals(1, reserved.get());
+        assertEquals(THREADS - 1, rejected.get());
+        assertEquals(0, slot.getRemaining());
+
+        Booking booking = repository.findByDate(DAY).iterator().next();
+        assertTrue(service.cancelReservation(alice, booking.getId()));
+        assertEquals(1, slot.getRemaining());
+    }
+
+    @Test
+    void concurrentCancellationsGiveTheSeatBackOnce() throws Exception {
+        Availability slot = new Availability(DAY, LocalTime.of(9, 0), 1, 1);
+        desk.addAvailability(slot);
+        Booking booking = service.createBooking(alice, desk, DAY, LocalTime.of(9, 0), LocalTime.of(10, 0));
+        service.makeReservation(alice, booking);
+
+        AtomicInteger cancelled = new AtomicInteger();
+        runConcurrently(() -> {
+            if (service.cancelReservation(alice, booking.getId())) {
+                cancelled.incrementAndGet();
+            }
+            return null;
+        });
+
+        assertEquals(1, cancelled.get());
+        assertEquals(1, slot.getRemaining());
+        assertTrue(desk.getBookedSlots(DAY).isEmpty());
+    }
+
+    @Test
+    void bookingsCannotStartInThePast() {
+        LocalDate today = LocalDate.of(2030, 1, 2);
+        BookingServiceImpl service = new BookingServiceImpl(repository, 5,
+                Clock.fixed(today.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                service.createBooking(alice, desk, today.minusDays(1), LocalTime.of(9, 0), LocalTime.of(10, 0)));
+        assertEquals(today, service.createBooking(alice, desk, today, LocalTime.of(9, 0), LocalTime.of(10, 0)).getDate());
+    }
+
+    @Test
+    void batchWithAConflictReservesNothing() throws Exception {
+        Availability slot = new Availability(DAY, LocalTime.of(8, 0), 1, 1);
+        desk.addAvailability(slot);
+        Workspace office = new Workspace("Office", "Quiet");
+        office.setId(2);
+        service.makeReservation(bob, service.createBooking(bob, office, DAY, LocalTime.of(12, 0), LocalTime.of(13, 0)));
+
+        List<Booking> batch = List.of(
+                service.createBooking(alice, desk, DAY, LocalTime.of(8, 0), LocalTime.of(9, 0)),
+                service.createBooking(alice, desk, DAY, LocalTime.of(10, 0), LocalTime.of(11, 0)),
+                service.createBooking(alice, office, DAY, LocalTime.of(12, 30), LocalTime.of(13, 30)));
+        assertThrows(BookingConflictException.class, () -> service.makeReservations(alice, batch));
+
+        assertTrue(service.getCustomerBookings(alice).isEmpty());
+        assertTrue(desk.getBookedSlots(DAY).isEmpty());
+        assertEquals(1, office.getBookedSlots(DAY).size());
+        assertEquals(1, slot.getRemaining());
+    }
+
+    @Test
+    void batchConflictingWithItselfReservesNothing() {
+        List<Booking> batch = List.of(
+                service.createBooking(alice, desk, DAY, LocalTime.of(8, 0), LocalTime.of(9, 0)),
+                service.createBooking(alice, desk, DAY, LocalTime.of(8, 30), LocalTime.of(9, 30)));
+        assertThrows(BookingConflictException.class, () -> service.makeReservations(alice, batch));
+
+        assertTrue(service.getCustomerBookings(alice).isEmpty());
+        assertTrue(desk.getBookedSlots(DAY).isEmpty());
+    }
+
+    @Test
+    void batchCancellationWithAForeignIdCancelsNothing() throws Exception {
+        Booking first = service.createBooking(alice, desk, DAY, LocalTime.of(8, 0), LocalTime.of(9, 0));
+        Booking second = service.createBooking(alice, desk, DAY, LocalTime.of(9, 0), LocalTime.of(10, 0));
+        Booking foreign = service.createBooking(bob, desk, DAY, LocalTime.of(10, 0), LocalTime.of(11, 0));
+        service.makeReservations(alice, List.of(first, second));
+        service.makeReservation(bob, foreign);
+
+        assertFalse(service.cancelReservations(alice, List.of(first.getId(), second.getId(), foreign.getId())));
+        assertEquals(2, service.getCustomerBookings(alice).size());
+
+        assertTrue(service.cancelReservations(alice, List.of(first.getId(), second.getId(), first.getId())));
+        assertTrue(service.getCustomerBookings(alice).isEmpty());
+        assertEquals(1, desk.getBookedSlots(DAY).size());
+    }
+
+    // Starts every task at once, so they contend
+    private void runConcurrently(Callable<Void> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+    }
+}
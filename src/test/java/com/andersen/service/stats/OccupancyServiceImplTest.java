@@ -0,0 +1,84 @@
+package com.andersen.service.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.andersen.entity.users.Customer;
+import com.andersen.entity.workspace.Workspace;
+import com.andersen.repository.booking.BookingArchive;
+import com.andersen.repository.booking.IndexedBookingRepository;
+import com.andersen.repository.booking.TieredBookingRepository;
+import com.andersen.repository.workspace.WorkspaceLog;
+import com.andersen.repository.workspace.WorkspaceRepositoryImpl;
+import com.andersen.service.booking.BookingServiceImpl;
+import com.andersen.service.workspace.WorkspaceServiceImpl;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OccupancyServiceImplTest {
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+    @TempDir
+    Path directory;
+
+    private final Customer alice = new Customer("alice", "secret");
+    private WorkspaceServiceImpl workspaceService;
+    private BookingServiceImpl bookingService;
+    private Workspace desk;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path catalog = Files.createFile(directory.resolve("workspaces.txt"));
+        workspaceService = new WorkspaceServiceImpl(new WorkspaceRepositoryImpl(catalog.toString(),
+                directory.resolve("workspaces.log").toString(), WorkspaceLog.FsyncPolicy.ALWAYS, 64 * 1024));
+        desk = new Workspace("Desk", "By the window");
+        workspaceService.addWorkspace(desk);
+        BookingArchive archive = new BookingArchive(directory.resolve("archive"),
+                id -> workspaceService.findById(id).orElse(null), userName -> alice);
+        bookingService = new BookingServiceImpl(new TieredBookingRepository(new IndexedBookingRepository(), archive));
+        workspaceService.addListener(bookingService);
+    }
+
+    @Test
+    void archivedDaysStayInTheReports() throws Exception {
+        OccupancyServiceImpl occupancy = new OccupancyServiceImpl(workspaceService, bookingService);
+        reserve(DAY, 9, 10);
+        reserve(DAY.plusDays(1), 10, 12);
+
+        assertEquals(1, bookingService.dropBookingsBefore(DAY.plusDays(1)));
+
+        assertDays(List.of(DAY, DAY.plusDays(1)), occupancy);
+        assertEquals(2, occupancy.getWorkspaceOccupancy().get(0).getBookings());
+        assertEquals(180, occupancy.getWorkspaceOccupancy().get(0).getBookedMinutes());
+        // Seeded after a restart, the archived day is read back from disk
+        assertDays(List.of(DAY, DAY.plusDays(1)), new OccupancyServiceImpl(workspaceService, bookingService));
+    }
+
+    @Test
+    void removedWorkspaceTakesItsArchivedDaysAlong() throws Exception {
+        OccupancyServiceImpl occupancy = new OccupancyServiceImpl(workspaceService, bookingService);
+        reserve(DAY, 9, 10);
+        reserve(DAY.plusDays(1), 10, 12);
+        bookingService.dropBookingsBefore(DAY.plusDays(1));
+
+        workspaceService.removeById(desk.getId());
+
+        assertTrue(occupancy.getDailyOccupancy().isEmpty());
+        assertTrue(occupancy.getWorkspaceOccupancy().isEmpty());
+    }
+
+    private void reserve(LocalDate date, int fromHour, int toHour) throws Exception {
+        bookingService.makeReservation(alice, bookingService.createBooking(alice, desk, date,
+                LocalTime.of(fromHour, 0), LocalTime.of(toHour, 0)));
+    }
+
+    private static void assertDays(List<LocalDate> expected, OccupancyService occupancy) {
+        assertEquals(expected, occupancy.getDailyOccupancy().stream().map(DailyOccupancy::getDate).toList());
+    }
+}